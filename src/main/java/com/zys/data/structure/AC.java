@@ -1,28 +1,79 @@
 package com.zys.data.structure;
 
+import com.zys.data.structure.trie.ChildMap;
+import com.zys.data.structure.trie.ChildMapFactory;
+import com.zys.data.structure.trie.Utf8Keys;
+import com.zys.data.structure.util.CharIntMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 
 /**
  * AC
+ * 默认字符集是 a-z，可以通过 {@link ChildMapFactory} 指定子节点的存储方式来支持任意字符集，
+ * 或者把字符编码成 UTF-8 字节，构造字节级的 AC 自动机。
+ * 还可以指定 {@link CharTransform}，在匹配循环中逐个字符做大小写折叠、全半角转换、跳过标点等变换，命中下标仍然是原始主串中的下标。
  *
  * @author: zys
  * @date: 2019/6/26 23:35
  */
-public class AC {
+public class AC implements TextSearcher {
     /**
      * Trie 树的根节点
      */
     private AcTrieNode root;
 
     /**
-     * 模式串集合的字符集范围大小
+     * 子节点存储的创建策略
+     */
+    private ChildMapFactory factory;
+
+    /**
+     * 是否是字节级的自动机，是的话每个字符先编码成 UTF-8 字节，每个节点存放一个字节
+     */
+    private boolean byteLevel;
+
+    /**
+     * 字符变换，null 表示不做变换
      */
-    private int size;
+    private CharTransform transform;
+
+    /**
+     * 最长的模式串长度（变换后的字符数），删除模式串时不减小，只作为上界使用
+     */
+    private int maxLength;
+
+    /**
+     * 插入模式串时字节级编码复用的缓冲区
+     */
+    private final int[] encoded = new int[Utf8Keys.MAX_BYTES_PER_CHAR];
+
+    /**
+     * 分配过的模式串编号个数，没有可复用的编号时就是下一个模式串的编号
+     */
+    private int patternCount;
+
+    /**
+     * 删除模式串之后释放的编号，插入时优先复用，编号始终不超过同时存在的模式串个数，
+     * 频繁增删的词典中以编号为下标的数组（附加数据等）不会无限增长
+     */
+    private int[] freeIds = new int[8];
+
+    private int freeCount;
+
+    /**
+     * 失败指针是否已经构建。构建之后再插入、删除模式串，只会增量更新受影响的失败指针
+     */
+    private boolean built;
 
     public class AcTrieNode {
         /**
-         * 存放字符
+         * 存放字符，字节级的自动机存放的是字节（0~255）
          */
         private char data;
         /**
@@ -31,13 +82,34 @@ public class AC {
         private int length = -1;
 
         /**
-         * 用对象数组的方式代替指针
+         * 子节点，叶子节点为 null，第一次插入子节点时才创建
          */
-        private AcTrieNode[] children;
+        private ChildMap<AcTrieNode> children;
         /**
          * 判断是否是结尾字符
          */
         private boolean isEndingChar = false;
+        /**
+         * 当 isEndingChar = true 时，记录模式串编号
+         */
+        private int patternId = -1;
+        /**
+         * 编译成 DFA 表时，节点在 BFS 顺序中的编号
+         */
+        private int index;
+        /**
+         * 节点的深度，即从 root 到当前节点的字符串长度（字节级的自动机是字节数）
+         */
+        private int depth;
+        /**
+         * 失败指针指向当前节点的所有节点（失败指针树的子节点），增量更新失败指针时使用
+         */
+        private AcTrieNode[] failedBy;
+        private int failedByCount;
+        /**
+         * 当前节点在 fail.failedBy 中的下标，用于 O(1) 删除
+         */
+        private int failSlot;
 
         /**
          * 失败指针，核心部分，本质：失败指针指向的节点到root之间的字符串是可匹配后缀子串，类似于 KMP 算法的失效函数（部分匹配数组）next 数组
@@ -46,36 +118,271 @@ public class AC {
          */
         private AcTrieNode fail;
 
-        public AcTrieNode(char data, AcTrieNode[] acTrieNodes) {
+        public AcTrieNode(char data) {
             this.data = data;
-            this.children = acTrieNodes;
+        }
+
+        AcTrieNode child(int key) {
+            return children == null ? null : children.get(key);
+        }
+
+        AcTrieNode addChild(int key) {
+            AcTrieNode child = child(key);
+            if (child == null) {
+                child = new AcTrieNode((char) key);
+                child.depth = depth + 1;
+                if (children == null) {
+                    children = factory.create();
+                }
+                children = children.put(key, child);
+            }
+            return child;
         }
     }
 
     public AC(int size) {
-        this.size = size;
+        this(ChildMapFactory.dense('a', size));
+    }
+
+    /**
+     * @param factory 子节点存储的创建策略
+     */
+    public AC(ChildMapFactory factory) {
+        this(factory, false);
+    }
+
+    /**
+     * @param factory   子节点存储的创建策略
+     * @param byteLevel 是否按 UTF-8 字节构造自动机，字节级的字符集只有 256，编译成 DFA 表时每行更窄
+     */
+    public AC(ChildMapFactory factory, boolean byteLevel) {
+        this(factory, byteLevel, null);
+    }
+
+    /**
+     * @param factory   子节点存储的创建策略
+     * @param byteLevel 是否按 UTF-8 字节构造自动机
+     * @param transform 字符变换，模式串和主串都会先做变换再匹配，null 表示不做变换
+     */
+    public AC(ChildMapFactory factory, boolean byteLevel, CharTransform transform) {
+        this.factory = factory;
+        this.byteLevel = byteLevel;
+        this.transform = transform;
         //根节点的值为 '/' ，无任何意义
-        this.root = new AcTrieNode('/', new AcTrieNode[size]);
+        this.root = new AcTrieNode('/');
     }
 
     /**
      * 往 Trie 树插入模式串
+     * 如果已经构建过失败指针，新建的节点会增量计算失败指针，不需要重新调用 {@link #buildFailurePointer()}
      *
      * @param chars 模式串
+     * @return 模式串编号，重复插入的模式串沿用第一次的编号；删除之后再插入可能得到别的模式串用过的编号
      */
-    public void insert(char[] chars) {
+    public int insert(char[] chars) {
         AcTrieNode p = this.root;
         int length = 0;
-        for (char aChar : chars) {
-            int idx = aChar - 'a';
-            if (p.children[idx] == null) {
-                p.children[idx] = new AcTrieNode(aChar, new AcTrieNode[size]);
-                length++;
+        for (char c : chars) {
+            int key = transform == null ? c : transform.apply(c);
+            if (key == CharTransform.SKIP) {
+                continue;
             }
-            p = p.children[idx];
+            char aChar = (char) key;
+            length++;
+            if (byteLevel) {
+                int n = Utf8Keys.encode(aChar, encoded);
+                for (int i = 0; i < n; i++) {
+                    p = append(p, encoded[i]);
+                }
+            } else {
+                p = append(p, aChar);
+            }
+        }
+        // 重复插入的模式串沿用第一次的编号
+        if (!p.isEndingChar) {
+            p.isEndingChar = true;
+            p.patternId = freeCount > 0 ? freeIds[--freeCount] : patternCount++;
         }
-        p.isEndingChar = true;
+        // 模式串可能与已有的模式串共用前缀，长度不能只统计新建的节点
         p.length = length;
+        maxLength = Math.max(maxLength, length);
+        return p.patternId;
+    }
+
+    /**
+     * 插入子节点，失败指针已经构建时同时更新失败指针
+     */
+    private AcTrieNode append(AcTrieNode p, int key) {
+        AcTrieNode pc = p.child(key);
+        if (pc != null) {
+            return pc;
+        }
+        pc = p.addChild(key);
+        if (built) {
+            linkNewNode(p, pc);
+        }
+        return pc;
+    }
+
+    /**
+     * 增量计算新节点 pc 的失败指针，并修正受影响的旧节点
+     * 核心思路：
+     * 1. pc 的失败指针和 buildFailurePointer 中一样，沿着父节点 p 的失败指针往上找；
+     * 2. 只有字符串以 p 结尾的节点 u（即失败指针树中 p 的子树），它们的子节点 u->c 才可能以 pc 为最长可匹配后缀子串。
+     * 如果 u->c 存在，且原来的失败指针比 pc 浅，就改成指向 pc；
+     * 此时 u 的子树中的节点 w，w->c 的最长可匹配后缀子串至少是 u->c，比 pc 更深，不用再往下找了。
+     *
+     * @param p  父节点
+     * @param pc 新插入的叶子节点
+     */
+    private void linkNewNode(AcTrieNode p, AcTrieNode pc) {
+        AcTrieNode fail = root;
+        if (p != root) {
+            for (AcTrieNode q = p.fail; q != null; q = q.fail) {
+                AcTrieNode qc = q.child(pc.data);
+                if (qc != null) {
+                    fail = qc;
+                    break;
+                }
+            }
+        }
+        link(pc, fail);
+        Deque<AcTrieNode> stack = new ArrayDeque<>();
+        pushFailedBy(stack, p);
+        while (!stack.isEmpty()) {
+            AcTrieNode u = stack.pop();
+            AcTrieNode v = u.child(pc.data);
+            if (v == null) {
+                pushFailedBy(stack, u);
+            } else if (v != pc && v.fail.depth < pc.depth) {
+                unlink(v);
+                link(v, pc);
+            }
+        }
+    }
+
+    private void pushFailedBy(Deque<AcTrieNode> stack, AcTrieNode node) {
+        for (int i = 0; i < node.failedByCount; i++) {
+            stack.push(node.failedBy[i]);
+        }
+    }
+
+    /**
+     * 设置失败指针，同时登记到失败指针树中
+     */
+    private void link(AcTrieNode node, AcTrieNode fail) {
+        node.fail = fail;
+        if (fail.failedBy == null) {
+            fail.failedBy = new AcTrieNode[2];
+        } else if (fail.failedByCount == fail.failedBy.length) {
+            fail.failedBy = Arrays.copyOf(fail.failedBy, fail.failedByCount * 2);
+        }
+        node.failSlot = fail.failedByCount;
+        fail.failedBy[fail.failedByCount++] = node;
+    }
+
+    /**
+     * 从失败指针树中摘除，用最后一个元素填补空位
+     */
+    private void unlink(AcTrieNode node) {
+        AcTrieNode fail = node.fail;
+        AcTrieNode last = fail.failedBy[--fail.failedByCount];
+        fail.failedBy[node.failSlot] = last;
+        last.failSlot = node.failSlot;
+        fail.failedBy[fail.failedByCount] = null;
+        node.fail = null;
+    }
+
+    /**
+     * 删除模式串
+     * 如果已经构建过失败指针，被删掉的节点只需要把指向它的失败指针转交给它自己的失败指针：
+     * 被删节点 n 是叶子，以 n 为最长可匹配后缀子串的节点，删掉 n 之后次长的就是 n->fail。
+     *
+     * @param chars 模式串
+     * @return 被删除的模式串编号，模式串不存在时返回 -1；这个编号之后会分配给新插入的模式串
+     */
+    public int remove(char[] chars) {
+        // 记录路径，用于自底向上删除不再需要的节点
+        List<AcTrieNode> path = new ArrayList<>();
+        AcTrieNode p = root;
+        path.add(p);
+        for (char c : chars) {
+            int key = transform == null ? c : transform.apply(c);
+            if (key == CharTransform.SKIP) {
+                continue;
+            }
+            char aChar = (char) key;
+            if (byteLevel) {
+                int n = Utf8Keys.encode(aChar, encoded);
+                for (int i = 0; i < n && p != null; i++) {
+                    p = p.child(encoded[i]);
+                    path.add(p);
+                }
+            } else {
+                p = p.child(aChar);
+                path.add(p);
+            }
+            if (p == null) {
+                return -1;
+            }
+        }
+        if (!p.isEndingChar) {
+            return -1;
+        }
+        int patternId = p.patternId;
+        p.isEndingChar = false;
+        p.patternId = -1;
+        p.length = -1;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = patternId;
+        // 自底向上删除既不是结尾字符、也没有子节点的节点
+        for (int i = path.size() - 1; i > 0; i--) {
+            AcTrieNode node = path.get(i);
+            if (node.isEndingChar || (node.children != null && node.children.size() > 0)) {
+                break;
+            }
+            path.get(i - 1).children.remove(node.data);
+            if (built) {
+                while (node.failedByCount > 0) {
+                    AcTrieNode v = node.failedBy[node.failedByCount - 1];
+                    unlink(v);
+                    link(v, node.fail);
+                }
+                unlink(node);
+            }
+        }
+        return patternId;
+    }
+
+    /**
+     * 查找模式串的编号
+     *
+     * @param chars 模式串
+     * @return 模式串编号，不存在时返回 -1
+     */
+    public int patternId(char[] chars) {
+        AcTrieNode p = root;
+        for (char c : chars) {
+            int key = transform == null ? c : transform.apply(c);
+            if (key == CharTransform.SKIP) {
+                continue;
+            }
+            char aChar = (char) key;
+            if (byteLevel) {
+                int n = Utf8Keys.encode(aChar, encoded);
+                for (int i = 0; i < n && p != null; i++) {
+                    p = p.child(encoded[i]);
+                }
+            } else {
+                p = p.child(aChar);
+            }
+            if (p == null) {
+                return -1;
+            }
+        }
+        return p.patternId;
     }
 
     /**
@@ -88,29 +395,35 @@ public class AC {
     public void buildFailurePointer() {
         Queue<AcTrieNode> queue = new LinkedList<>();
         root.fail = null;
+        root.failedByCount = 0;
         // 先把根节点先入队
         queue.add(root);
         while (!queue.isEmpty()) {
             // 取出头部元素
             AcTrieNode p = queue.remove();
-            for (int i = 0; i < size; i++) {
-                AcTrieNode pc = p.children[i];
+            if (p.children == null) {
+                continue;
+            }
+            for (int i = 0; i < p.children.slots(); i++) {
+                AcTrieNode pc = p.children.valueAt(i);
                 // 如果为null，证明不存在，直接跳过这个字符
                 if (pc == null) {
                     continue;
                 }
+                // 失败指针只会指向更浅的节点，第一次访问到 pc 时还没有节点指向它，可以清空上一次构建留下的失败指针树
+                pc.failedByCount = 0;
                 // 当 p 指向根节点时，相当于上层节点只有根节点，所以下级节点的失败指针指向 root
                 if (p == root) {
-                    pc.fail = root;
+                    link(pc, root);
                 } else {
                     AcTrieNode q = p.fail;
                     // 直至 q 指针指向 root 节点
                     while (q != null) {
                         // 查找 p 节点的失败指针指向的节点的子节点 qc 是否包含与 p节点的子节点 pc 的字符
-                        AcTrieNode qc = q.children[pc.data - 'a'];
+                        AcTrieNode qc = q.child(pc.data);
                         // 当不为空时，即包含
                         if (qc != null) {
-                            pc.fail = qc;
+                            link(pc, qc);
                             break;
                         }
                         q = q.fail;
@@ -118,13 +431,106 @@ public class AC {
                     // 使用if的原因是 while 循环里，存在 break 的情况。
                     // q 指针一直向上找失败指针，直至指向了没有失败指针的节点，即指向了root，所以 pc 节点的失败指针指向 root
                     if (q == null) {
-                        pc.fail = root;
+                        link(pc, root);
                     }
                 }
                 // 将每个节点入队
                 queue.add(pc);
             }
         }
+        built = true;
+    }
+
+    /**
+     * 把 Trie 树编译成扁平的 DFA 转移表，需要先调用 {@link #buildFailurePointer()}
+     * 核心思路：
+     * 1. 按 BFS 顺序给节点编号，每个节点占用表中的一行，行内是每个字符的转移目标；
+     * 2. 节点 p 没有字符 c 的子节点时，转移目标直接等于 p 的失败指针节点读入 c 的转移目标。
+     * BFS 保证失败指针节点的行已经填好，所以失败指针在编译期就被消解掉了，匹配时不再需要 while 循环；
+     * 3. 每行的第 0 列存放输出链的入口：沿失败指针往上第一个结尾字符，输出链把所有结尾字符串起来，
+     * 匹配时不需要遍历整条失败指针链。
+     * <p>
+     * 表的列数不是整个字符集的大小，而是模式串中实际出现过的字符种数（字符等价类），
+     * 没有出现在任何模式串中的字符统一回到 root，不占列。
+     * 表的大小是 状态数 * (字符种数 + 1)，字符种类很多（比如中文）时建议使用字节级的自动机，每行最多 257 列。
+     *
+     * @return 编译好的 DFA
+     */
+    public AcDfa compile() {
+        if (!built) {
+            throw new IllegalStateException("请先调用 buildFailurePointer");
+        }
+        // 按 BFS 顺序收集节点，保证处理某个节点时它的失败指针节点已经处理过了
+        List<AcTrieNode> nodes = new ArrayList<>();
+        Queue<AcTrieNode> queue = new LinkedList<>();
+        queue.add(root);
+        // 给模式串中出现过的字符分配列号，从 1 开始，0 表示没有出现过
+        CharIntMap classes = new CharIntMap(0);
+        List<Integer> keys = new ArrayList<>();
+        int outputCount = 0;
+        while (!queue.isEmpty()) {
+            AcTrieNode p = queue.remove();
+            p.index = nodes.size();
+            nodes.add(p);
+            if (p.isEndingChar) {
+                outputCount++;
+            }
+            if (p.children == null) {
+                continue;
+            }
+            for (int i = 0; i < p.children.slots(); i++) {
+                AcTrieNode pc = p.children.valueAt(i);
+                if (pc != null) {
+                    if (classes.get(pc.data) == 0) {
+                        keys.add((int) pc.data);
+                        classes.put(pc.data, keys.size());
+                    }
+                    queue.add(pc);
+                }
+            }
+        }
+        // 每行 字符种数 + 1 列，第 0 列是输出链入口，表中存的是行的起始下标，省掉匹配时的乘法
+        int stride = keys.size() + 1;
+        long tableSize = (long) nodes.size() * stride;
+        if (tableSize > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("DFA 表太大（" + tableSize + "），请使用字节级的自动机");
+        }
+        int[] table = new int[(int) tableSize];
+        int[] outputPatternIds = new int[outputCount];
+        int[] outputLengths = new int[outputCount];
+        int[] outputNext = new int[outputCount];
+        // 节点对应的输出链入口
+        int[] outputOf = new int[nodes.size()];
+        int[] depths = new int[nodes.size()];
+        int output = 0;
+        for (AcTrieNode p : nodes) {
+            int row = p.index * stride;
+            depths[p.index] = p.depth;
+            int failOutput = p == root ? -1 : outputOf[p.fail.index];
+            if (p.isEndingChar) {
+                outputPatternIds[output] = p.patternId;
+                outputLengths[output] = p.length;
+                outputNext[output] = failOutput;
+                outputOf[p.index] = output++;
+            } else {
+                outputOf[p.index] = failOutput;
+            }
+            table[row] = outputOf[p.index];
+            for (int cls = 1; cls < stride; cls++) {
+                AcTrieNode pc = p.child(keys.get(cls - 1));
+                if (pc != null) {
+                    table[row + cls] = pc.index * stride;
+                } else if (p != root) {
+                    table[row + cls] = table[p.fail.index * stride + cls];
+                }
+                // root 没有子节点的字符停留在 root，即第 0 行，数组默认值就是 0
+            }
+        }
+        int[] classKeys = new int[keys.size()];
+        for (int i = 0; i < classKeys.length; i++) {
+            classKeys[i] = keys.get(i);
+        }
+        return new AcDfa(byteLevel, transform, classKeys, table, depths, outputPatternIds, outputLengths, outputNext);
     }
 
     /**
@@ -137,31 +543,237 @@ public class AC {
      * @param text 用户输入的文本（主串）
      */
     public void match(char[] text) {
-        int n = text.length;
+        match(text, (patternId, start, length) -> System.out.println("匹配下标：" + start + "；长度：" + length));
+    }
+
+    /**
+     * AC 自动机匹配，命中时回调 listener
+     *
+     * @param text     主串
+     * @param listener 命中回调
+     */
+    public void match(char[] text, MatchListener listener) {
+        match(text, 0, text.length, listener);
+    }
+
+    /**
+     * AC 自动机匹配 text[off, off + len)，命中的下标相对于 off
+     *
+     * @param text     主串
+     * @param off      起始下标
+     * @param len      长度
+     * @param listener 命中回调
+     */
+    public void match(char[] text, int off, int len, MatchListener listener) {
+        if (transform != null) {
+            scanTransformed(root, text, off, len, 0, new OffsetRing(maxLength), listener);
+            return;
+        }
         AcTrieNode p = root;
-        for (int i = 0; i < n; i++) {
-            int idx = text[i] - 'a';
-            // 相当于步骤 2
-            // p.children[idx] == null 证明当前节点 p 的子节点的值没有匹配到 c，
-            // && p != root 这个是终止条件，当失败指针找不到符合的值时，需要继续往上层寻找，直至节点 p 为 节点 root
-            while (p.children[idx] == null && p != root) {
-                p = p.fail;
-            }
-            // 步骤 1
-            p = p.children[idx];
-            if (p == null) {
-                // 如果没有匹配的，从root重新开始匹配
-                p = root;
+        for (int i = 0; i < len; i++) {
+            p = next(p, text[off + i]);
+            emit(p, i, listener);
+        }
+    }
+
+    @Override
+    public int search(char[] text, int off, int len, MatchListener listener) {
+        int[] count = new int[1];
+        match(text, off, len, (patternId, start, length) -> {
+            count[0]++;
+            listener.onMatch(patternId, start, length);
+        });
+        return count[0];
+    }
+
+    /**
+     * AC 自动机匹配，把命中以 (模式串编号, 起始下标, 长度) 三元组的形式依次写入 out，匹配过程中不分配任何对象
+     * out 写满之后继续统计命中个数但不再写入
+     *
+     * @param text 主串
+     * @param off  起始下标
+     * @param len  长度
+     * @param out  结果数组，第 k 个命中写在 out[3k, 3k + 3)，起始下标相对于 off
+     * @return 命中总数
+     */
+    public int match(char[] text, int off, int len, int[] out) {
+        int capacity = out.length / 3;
+        if (transform != null) {
+            // 变换后的下标需要通过环形缓冲区换算，走回调的路径
+            int[] count = new int[1];
+            match(text, off, len, (patternId, start, length) -> {
+                if (count[0] < capacity) {
+                    int k = count[0] * 3;
+                    out[k] = patternId;
+                    out[k + 1] = (int) start;
+                    out[k + 2] = length;
+                }
+                count[0]++;
+            });
+            return count[0];
+        }
+        int count = 0;
+        AcTrieNode p = root;
+        for (int i = 0; i < len; i++) {
+            p = next(p, text[off + i]);
+            for (AcTrieNode tmp = p; tmp != root; tmp = tmp.fail) {
+                if (tmp.isEndingChar) {
+                    if (count < capacity) {
+                        int k = count * 3;
+                        out[k] = tmp.patternId;
+                        out[k + 1] = i - tmp.length + 1;
+                        out[k + 2] = tmp.length;
+                    }
+                    count++;
+                }
             }
-            AcTrieNode tmp = p;
-            // 排除没有匹配到的情况，通过失败指针，检测一系列以失败指针为结尾的路径是否是模式串
-            while (tmp != root) {
+        }
+        return count;
+    }
+
+    /**
+     * 创建流式扫描器，自动机状态在分块之间保留，适合扫描无法一次读入内存的大文件
+     *
+     * @param listener 命中回调，下标是在整个输入中的绝对下标
+     * @return 流式扫描器
+     */
+    public CharStreamScanner stream(MatchListener listener) {
+        return new AcStreamScanner(listener);
+    }
+
+    /**
+     * 带字符变换的扫描，被跳过的字符不参与状态转移，命中的起始下标通过环形缓冲区换算回原始主串的下标
+     *
+     * @param p        起始节点
+     * @param text     主串
+     * @param off      起始下标
+     * @param len      长度
+     * @param position text[off] 在整个输入中的绝对下标
+     * @param ring     变换后字符的原始下标
+     * @param listener 命中回调
+     * @return 扫描结束时所在的节点
+     */
+    private AcTrieNode scanTransformed(AcTrieNode p, char[] text, int off, int len, long position,
+                                       OffsetRing ring, MatchListener listener) {
+        for (int i = 0; i < len; i++) {
+            int c = transform.apply(text[off + i]);
+            if (c == CharTransform.SKIP) {
+                continue;
+            }
+            p = next(p, (char) c);
+            long end = position + i;
+            ring.push(end);
+            for (AcTrieNode tmp = p; tmp != root; tmp = tmp.fail) {
                 if (tmp.isEndingChar) {
-                    int pos = i - tmp.length + 1;
-                    System.out.println("匹配下标：" + pos + "；长度：" + tmp.length);
+                    long start = ring.startOf(tmp.length);
+                    listener.onMatch(tmp.patternId, start, (int) (end - start + 1));
                 }
-                // 证明不是完全匹配
-                tmp = tmp.fail;
+            }
+        }
+        return p;
+    }
+
+    /**
+     * 状态转移：从节点 p 读入字符 c 之后到达的节点
+     * 字节级的自动机把字符现场编码成 UTF-8 字节（与 {@link Utf8Keys#encode} 一致），不需要缓冲区
+     *
+     * @param p 当前节点
+     * @param c 输入字符
+     * @return 下一个节点
+     */
+    private AcTrieNode next(AcTrieNode p, char c) {
+        if (!byteLevel || c < 0x80) {
+            return next(p, (int) c);
+        }
+        if (c < 0x800) {
+            return next(next(p, 0xC0 | (c >> 6)), 0x80 | (c & 0x3F));
+        }
+        p = next(p, 0xE0 | (c >> 12));
+        p = next(p, 0x80 | ((c >> 6) & 0x3F));
+        return next(p, 0x80 | (c & 0x3F));
+    }
+
+    /**
+     * 状态转移：从节点 p 读入 key（字符或字节）之后到达的节点
+     */
+    private AcTrieNode next(AcTrieNode p, int key) {
+        // 相当于步骤 2
+        // p.child(key) == null 证明当前节点 p 的子节点的值没有匹配到 c，
+        // && p != root 这个是终止条件，当失败指针找不到符合的值时，需要继续往上层寻找，直至节点 p 为 节点 root
+        // 字符集之外的字符不可能出现在任何模式串中，最终也会回到 root
+        while (p.child(key) == null && p != root) {
+            p = p.fail;
+        }
+        // 步骤 1
+        p = p.child(key);
+        if (p == null) {
+            // 如果没有匹配的，从root重新开始匹配
+            p = root;
+        }
+        return p;
+    }
+
+    /**
+     * 通过失败指针，检测一系列以失败指针为结尾的路径是否是模式串
+     *
+     * @param p        当前节点
+     * @param end      当前字符的下标，即命中的结尾下标
+     * @param listener 命中回调
+     */
+    private void emit(AcTrieNode p, long end, MatchListener listener) {
+        AcTrieNode tmp = p;
+        // 排除没有匹配到的情况，通过失败指针，检测一系列以失败指针为结尾的路径是否是模式串
+        while (tmp != root) {
+            if (tmp.isEndingChar) {
+                listener.onMatch(tmp.patternId, end - tmp.length + 1, tmp.length);
+            }
+            // 证明不是完全匹配
+            tmp = tmp.fail;
+        }
+    }
+
+    /**
+     * 基于指针结构的流式扫描器，只需要记住当前所在的节点
+     */
+    private class AcStreamScanner extends CharStreamScanner {
+        private final MatchListener listener;
+
+        private AcTrieNode state = root;
+
+        /**
+         * 字符变换时使用，跨分块保留
+         */
+        private final OffsetRing ring;
+
+        AcStreamScanner(MatchListener listener) {
+            this.listener = listener;
+            this.ring = transform == null ? null : new OffsetRing(maxLength);
+        }
+
+        @Override
+        public void feed(char[] chars, int off, int len) {
+            if (ring != null) {
+                // 扫描过程中可能插入了更长的模式串
+                ring.ensureCapacity(maxLength);
+                state = scanTransformed(state, chars, off, len, position, ring, listener);
+                position += len;
+                return;
+            }
+            AcTrieNode p = state;
+            long base = position;
+            for (int i = 0; i < len; i++) {
+                p = next(p, chars[off + i]);
+                emit(p, base + i, listener);
+            }
+            state = p;
+            position = base + len;
+        }
+
+        @Override
+        protected void resetState() {
+            state = root;
+            if (ring != null) {
+                ring.reset();
             }
         }
     }
@@ -0,0 +1,625 @@
+package com.zys.data.structure;
+
+import com.zys.data.structure.trie.Utf8Keys;
+import com.zys.data.structure.util.CharIntMap;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * AC 自动机编译后的 DFA 转移表，由 {@link AC#compile()} 生成
+ * <p>
+ * 所有节点都放在一个扁平的 int 数组中，每个节点一行，第 0 列是输出链入口，其余列是每个字符等价类的转移目标，
+ * 失败指针在编译期已经消解，所以匹配时每个字符只需要一次数组访问：state = table[state + cls]。
+ * 相比对象指针结构，没有对象头和引用的开销，相邻状态在内存中连续，对 CPU 缓存更友好。
+ * <p>
+ * 编译后的表是只读的，可以被多个线程同时使用。
+ * 匹配的热路径不分配对象：命中可以通过 {@link MatchListener} 回调、写入可复用的 {@link MatchBuffer}，
+ * 或者以三元组的形式写入调用方提供的 int[] / IntBuffer。
+ * <p>
+ * 构建时指定了 {@link CharTransform} 的自动机，匹配时逐个字符做同样的变换，命中下标换算回原始主串的下标；
+ * 这时 int[] / IntBuffer 结果会走回调的路径，每次调用会分配少量对象。
+ * <p>
+ * 可以通过 {@link #writeTo(Path)} 保存成二进制文件，再用 {@link MappedAcDfa} 以内存映射的方式直接加载。
+ *
+ * @author: zys
+ * @date: 2026/10/18 14:05
+ */
+public class AcDfa implements TextSearcher {
+    /**
+     * 是否是字节级的自动机，是的话每个字符先编码成 UTF-8 字节再转移
+     */
+    private final boolean byteLevel;
+
+    /**
+     * 字符变换，null 表示不做变换
+     */
+    private final CharTransform transform;
+
+    /**
+     * 第 k 列（从 1 开始）对应的字符是 classKeys[k - 1]
+     */
+    private final int[] classKeys;
+
+    /**
+     * 字符（或字节）到列号的映射，没有出现在模式串中的字符映射到 0
+     */
+    private final CharIntMap classes;
+
+    /**
+     * 每行的宽度，字符种数 + 1
+     */
+    private final int stride;
+
+    /**
+     * 转移表，存的是目标状态所在行的起始下标，root 是第 0 行
+     */
+    private final int[] table;
+
+    /**
+     * 每个状态（按状态编号）的深度，即状态对应的字符串长度（字节级的自动机是字节数），最左匹配时用来判断候选命中是否已经确定
+     */
+    private final int[] depths;
+
+    /**
+     * 输出链：第 k 个结尾字符对应的模式串编号
+     */
+    private final int[] outputPatternIds;
+
+    /**
+     * 输出链：第 k 个结尾字符对应的模式串长度
+     */
+    private final int[] outputLengths;
+
+    /**
+     * 输出链：沿失败指针往上的下一个结尾字符，-1 表示没有了
+     */
+    private final int[] outputNext;
+
+    /**
+     * 最长的模式串长度
+     */
+    private final int maxLength;
+
+    AcDfa(boolean byteLevel, CharTransform transform, int[] classKeys, int[] table, int[] depths,
+          int[] outputPatternIds, int[] outputLengths, int[] outputNext) {
+        this.byteLevel = byteLevel;
+        this.transform = transform;
+        this.classKeys = classKeys;
+        this.classes = new CharIntMap(0);
+        for (int i = 0; i < classKeys.length; i++) {
+            classes.put((char) classKeys[i], i + 1);
+        }
+        this.stride = classKeys.length + 1;
+        this.table = table;
+        this.depths = depths;
+        this.outputPatternIds = outputPatternIds;
+        this.outputLengths = outputLengths;
+        this.outputNext = outputNext;
+        int max = 0;
+        for (int length : outputLengths) {
+            max = Math.max(max, length);
+        }
+        this.maxLength = max;
+    }
+
+    /**
+     * @return 状态（节点）个数
+     */
+    public int stateCount() {
+        return table.length / stride;
+    }
+
+    /**
+     * @return 构建时指定的字符变换，没有时返回 null
+     */
+    public CharTransform transform() {
+        return transform;
+    }
+
+    /**
+     * @return 最长的模式串长度（变换后的字符数），没有模式串时返回 0
+     */
+    public int maxLength() {
+        return maxLength;
+    }
+
+    /**
+     * 保存成二进制文件，格式见 {@link MappedAcDfa}
+     *
+     * @param file 文件路径
+     * @throws IOException 写入失败
+     */
+    public void writeTo(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MappedAcDfa.MAGIC);
+            out.writeInt(MappedAcDfa.VERSION);
+            out.writeInt((byteLevel ? MappedAcDfa.FLAG_BYTE_LEVEL : 0) | (transform != null ? MappedAcDfa.FLAG_TRANSFORMED : 0));
+            out.writeInt(stateCount());
+            out.writeInt(classKeys.length);
+            out.writeInt(outputLengths.length);
+            out.writeInt(maxLength);
+            out.writeInt(0);
+            writeInts(out, classKeys);
+            writeInts(out, table);
+            writeInts(out, outputPatternIds);
+            writeInts(out, outputLengths);
+            writeInts(out, outputNext);
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * 匹配主串，命中时回调 listener
+     *
+     * @param text     主串
+     * @param listener 命中回调
+     */
+    public void match(char[] text, MatchListener listener) {
+        match(text, 0, text.length, listener);
+    }
+
+    /**
+     * 匹配 text[off, off + len)，命中的下标相对于 off
+     *
+     * @param text     主串
+     * @param off      起始下标
+     * @param len      长度
+     * @param listener 命中回调
+     */
+    public void match(char[] text, int off, int len, MatchListener listener) {
+        if (transform != null) {
+            runTransformed(0, text, off, len, 0, new OffsetRing(maxLength), listener);
+            return;
+        }
+        run(0, text, off, len, 0, listener);
+    }
+
+    @Override
+    public int search(char[] text, int off, int len, MatchListener listener) {
+        return match(text, off, len, MatchMode.ALL, listener);
+    }
+
+    /**
+     * 按指定的模式匹配 text[off, off + len)，命中的下标相对于 off
+     *
+     * @param text     主串
+     * @param off      起始下标
+     * @param len      长度
+     * @param mode     匹配模式
+     * @param listener 命中回调，COUNT 模式下可以为 null
+     * @return 命中个数，FIRST 模式下是 0 或 1
+     */
+    public int match(char[] text, int off, int len, MatchMode mode, MatchListener listener) {
+        if (transform != null) {
+            return matchTransformed(text, off, len, mode, listener);
+        }
+        switch (mode) {
+            case ALL:
+                return all(text, off, len, listener);
+            case FIRST:
+                return first(text, off, len, listener);
+            case COUNT:
+                return count(text, off, len);
+            case LEFTMOST_LONGEST:
+            case LEFTMOST_FIRST:
+                return leftmost(text, off, len, mode == MatchMode.LEFTMOST_LONGEST, listener);
+            default:
+                throw new IllegalArgumentException("不支持的匹配模式：" + mode);
+        }
+    }
+
+    /**
+     * 主串中是否包含任意一个模式串，遇到第一个命中就返回
+     *
+     * @param text 主串
+     * @return 是否包含
+     */
+    public boolean containsAny(char[] text) {
+        if (transform != null) {
+            return matchTransformed(text, 0, text.length, MatchMode.FIRST, (patternId, start, length) -> {
+            }) > 0;
+        }
+        int[] table = this.table;
+        int state = 0;
+        for (char c : text) {
+            state = step(state, c);
+            if (table[state] >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 报告所有命中（允许重叠），同时统计个数
+     */
+    private int all(char[] text, int off, int len, MatchListener listener) {
+        int[] table = this.table;
+        int count = 0;
+        int state = 0;
+        for (int i = 0; i < len; i++) {
+            state = step(state, text[off + i]);
+            for (int output = table[state]; output >= 0; output = outputNext[output]) {
+                int length = outputLengths[output];
+                listener.onMatch(outputPatternIds[output], i - length + 1, length);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 只统计命中个数（允许重叠），不回调
+     */
+    private int count(char[] text, int off, int len) {
+        int[] table = this.table;
+        int count = 0;
+        int state = 0;
+        for (int i = 0; i < len; i++) {
+            state = step(state, text[off + i]);
+            for (int output = table[state]; output >= 0; output = outputNext[output]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 只报告结尾下标最小的命中，找到之后立即返回；结尾相同时报告最长的
+     */
+    private int first(char[] text, int off, int len, MatchListener listener) {
+        int[] table = this.table;
+        int state = 0;
+        for (int i = 0; i < len; i++) {
+            state = step(state, text[off + i]);
+            int output = table[state];
+            if (output >= 0) {
+                int length = outputLengths[output];
+                listener.onMatch(outputPatternIds[output], i - length + 1, length);
+                return 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 最左匹配，命中之间不重叠
+     * 核心思路：
+     * 1. 扫描过程中维护一个候选命中：起始下标最小的命中，起始下标相同时按 longest 选最长的，否则选编号最小（最先插入）的；
+     * 2. 当前状态的深度 depth 是以当前字符结尾、且是某个模式串前缀的最长字符串的长度，
+     * 如果 depth < i - 候选起始下标 + 1，说明以后不可能再出现起始下标不大于候选起始下标的命中了，候选命中就确定下来；
+     * 3. 报告候选命中之后，从候选命中的下一个字符开始、从 root 重新匹配，保证命中之间不重叠。
+     */
+    private int leftmost(char[] text, int off, int len, boolean longest, MatchListener listener) {
+        int[] table = this.table;
+        int count = 0;
+        int state = 0;
+        int candStart = -1;
+        int candLength = 0;
+        int candId = 0;
+        int i = 0;
+        while (i < len || candStart >= 0) {
+            if (i < len) {
+                state = step(state, text[off + i]);
+            }
+            // 只有存在候选命中时才需要查深度，state 是行的起始下标，除以行宽得到状态编号
+            // 扫描到末尾时候选命中也确定下来了，但候选命中之后的字符还需要重新匹配
+            if (candStart >= 0 && (i == len || depths[state / stride] < i - candStart + 1)) {
+                listener.onMatch(candId, candStart, candLength);
+                count++;
+                i = candStart + candLength;
+                state = 0;
+                candStart = -1;
+                continue;
+            }
+            for (int output = table[state]; output >= 0; output = outputNext[output]) {
+                int length = outputLengths[output];
+                int start = i - length + 1;
+                int patternId = outputPatternIds[output];
+                boolean better = candStart < 0 || start < candStart
+                        || (start == candStart && (longest ? length > candLength : patternId < candId));
+                if (better) {
+                    candStart = start;
+                    candLength = length;
+                    candId = patternId;
+                }
+            }
+            i++;
+        }
+        return count;
+    }
+
+    /**
+     * 匹配主串，把命中以 (模式串编号, 起始下标, 长度) 三元组的形式依次写入 out，匹配过程中不分配任何对象
+     * out 写满之后继续统计命中个数但不再写入，调用方可以根据返回值扩容后重新匹配
+     *
+     * @param text 主串
+     * @param off  起始下标
+     * @param len  长度
+     * @param out  结果数组，第 k 个命中写在 out[3k, 3k + 3)，起始下标相对于 off
+     * @return 命中总数
+     */
+    public int match(char[] text, int off, int len, int[] out) {
+        int[] table = this.table;
+        int capacity = out.length / 3;
+        if (transform != null) {
+            int[] count = new int[1];
+            runTransformed(0, text, off, len, 0, new OffsetRing(maxLength), (patternId, start, length) -> {
+                if (count[0] < capacity) {
+                    int k = count[0] * 3;
+                    out[k] = patternId;
+                    out[k + 1] = (int) start;
+                    out[k + 2] = length;
+                }
+                count[0]++;
+            });
+            return count[0];
+        }
+        int count = 0;
+        int state = 0;
+        for (int i = 0; i < len; i++) {
+            state = step(state, text[off + i]);
+            for (int output = table[state]; output >= 0; output = outputNext[output]) {
+                if (count < capacity) {
+                    int length = outputLengths[output];
+                    int k = count * 3;
+                    out[k] = outputPatternIds[output];
+                    out[k + 1] = i - length + 1;
+                    out[k + 2] = length;
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 匹配主串，把命中以三元组的形式依次写入 out 的剩余空间，不足一个三元组时停止写入
+     *
+     * @param text 主串
+     * @param off  起始下标
+     * @param len  长度
+     * @param out  结果缓冲区，可以是堆外的 IntBuffer
+     * @return 命中总数
+     */
+    public int match(char[] text, int off, int len, IntBuffer out) {
+        int[] table = this.table;
+        if (transform != null) {
+            int[] count = new int[1];
+            runTransformed(0, text, off, len, 0, new OffsetRing(maxLength), (patternId, start, length) -> {
+                if (out.remaining() >= 3) {
+                    out.put(patternId).put((int) start).put(length);
+                }
+                count[0]++;
+            });
+            return count[0];
+        }
+        int count = 0;
+        int state = 0;
+        for (int i = 0; i < len; i++) {
+            state = step(state, text[off + i]);
+            for (int output = table[state]; output >= 0; output = outputNext[output]) {
+                if (out.remaining() >= 3) {
+                    int length = outputLengths[output];
+                    out.put(outputPatternIds[output]).put(i - length + 1).put(length);
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 创建流式扫描器，状态在分块之间保留
+     *
+     * @param listener 命中回调，下标是在整个输入中的绝对下标
+     * @return 流式扫描器
+     */
+    public CharStreamScanner stream(MatchListener listener) {
+        return new DfaStreamScanner(listener);
+    }
+
+    /**
+     * 从状态 state 开始扫描一段字符
+     *
+     * @param state    起始状态所在行的下标
+     * @param text     主串
+     * @param off      起始下标
+     * @param len      长度
+     * @param position text[off] 在整个输入中的绝对下标
+     * @param listener 命中回调
+     * @return 扫描结束时的状态
+     */
+    private int run(int state, char[] text, int off, int len, long position, MatchListener listener) {
+        int[] table = this.table;
+        for (int i = 0; i < len; i++) {
+            state = step(state, text[off + i]);
+            int output = table[state];
+            if (output >= 0) {
+                report(output, position + i, listener);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * 带字符变换的扫描，报告所有命中，被跳过的字符不参与状态转移
+     *
+     * @param ring 变换后字符的原始下标，流式扫描时跨分块保留
+     * @return 扫描结束时的状态
+     */
+    private int runTransformed(int state, char[] text, int off, int len, long position,
+                               OffsetRing ring, MatchListener listener) {
+        int[] table = this.table;
+        for (int i = 0; i < len; i++) {
+            int c = transform.apply(text[off + i]);
+            if (c == CharTransform.SKIP) {
+                continue;
+            }
+            state = step(state, (char) c);
+            long end = position + i;
+            ring.push(end);
+            for (int output = table[state]; output >= 0; output = outputNext[output]) {
+                long start = ring.startOf(outputLengths[output]);
+                listener.onMatch(outputPatternIds[output], start, (int) (end - start + 1));
+            }
+        }
+        return state;
+    }
+
+    /**
+     * 带字符变换的各种匹配模式，逻辑与不带变换时一致，
+     * 区别是命中的长度、深度都按变换后的字符数计算，报告时再换算回原始主串的下标和长度
+     */
+    private int matchTransformed(char[] text, int off, int len, MatchMode mode, MatchListener listener) {
+        int[] table = this.table;
+        OffsetRing ring = new OffsetRing(maxLength);
+        int count = 0;
+        int state = 0;
+        if (mode == MatchMode.ALL || mode == MatchMode.FIRST || mode == MatchMode.COUNT) {
+            for (int i = 0; i < len; i++) {
+                int c = transform.apply(text[off + i]);
+                if (c == CharTransform.SKIP) {
+                    continue;
+                }
+                state = step(state, (char) c);
+                ring.push(i);
+                for (int output = table[state]; output >= 0; output = outputNext[output]) {
+                    count++;
+                    if (mode != MatchMode.COUNT) {
+                        long start = ring.startOf(outputLengths[output]);
+                        listener.onMatch(outputPatternIds[output], start, (int) (i - start + 1));
+                        if (mode == MatchMode.FIRST) {
+                            return 1;
+                        }
+                    }
+                }
+            }
+            return count;
+        }
+        boolean longest = mode == MatchMode.LEFTMOST_LONGEST;
+        long candStart = -1;
+        // 候选命中在变换后字符中的起始序号
+        long candStartT = 0;
+        int candEnd = 0;
+        int candLength = 0;
+        int candId = 0;
+        int i = 0;
+        while (i < len || candStart >= 0) {
+            if (i < len) {
+                int c = transform.apply(text[off + i]);
+                if (c == CharTransform.SKIP) {
+                    i++;
+                    continue;
+                }
+                state = step(state, (char) c);
+                ring.push(i);
+            }
+            if (candStart >= 0 && (i == len || depths[state / stride] < ring.count() - candStartT)) {
+                listener.onMatch(candId, candStart, (int) (candEnd - candStart + 1));
+                count++;
+                i = candEnd + 1;
+                state = 0;
+                candStart = -1;
+                ring.reset();
+                continue;
+            }
+            for (int output = table[state]; output >= 0; output = outputNext[output]) {
+                int length = outputLengths[output];
+                long start = ring.startOf(length);
+                int patternId = outputPatternIds[output];
+                boolean better = candStart < 0 || start < candStart
+                        || (start == candStart && (longest ? length > candLength : patternId < candId));
+                if (better) {
+                    candStart = start;
+                    candStartT = ring.count() - length;
+                    candEnd = i;
+                    candLength = length;
+                    candId = patternId;
+                }
+            }
+            i++;
+        }
+        return count;
+    }
+
+    /**
+     * 状态转移：从状态 state 读入字符 c 之后到达的状态
+     * 字节级的自动机把字符现场编码成 UTF-8 字节（与 {@link Utf8Keys#encode} 一致），命中只会出现在完整字符的末尾
+     */
+    private int step(int state, char c) {
+        if (!byteLevel) {
+            return transit(state, c);
+        }
+        if (c < 0x80) {
+            return transit(state, c);
+        }
+        if (c < 0x800) {
+            return transit(transit(state, 0xC0 | (c >> 6)), 0x80 | (c & 0x3F));
+        }
+        state = transit(state, 0xE0 | (c >> 12));
+        state = transit(state, 0x80 | ((c >> 6) & 0x3F));
+        return transit(state, 0x80 | (c & 0x3F));
+    }
+
+    private int transit(int state, int key) {
+        int cls = classes.get((char) key);
+        // 没有出现在模式串中的字符回到 root
+        return cls == 0 ? 0 : table[state + cls];
+    }
+
+    /**
+     * 沿输出链报告所有以 end 结尾的模式串
+     */
+    private void report(int output, long end, MatchListener listener) {
+        do {
+            int length = outputLengths[output];
+            listener.onMatch(outputPatternIds[output], end - length + 1, length);
+            output = outputNext[output];
+        } while (output >= 0);
+    }
+
+    private class DfaStreamScanner extends CharStreamScanner {
+        private final MatchListener listener;
+
+        private int state;
+
+        /**
+         * 字符变换时使用，跨分块保留
+         */
+        private final OffsetRing ring;
+
+        DfaStreamScanner(MatchListener listener) {
+            this.listener = listener;
+            this.ring = transform == null ? null : new OffsetRing(maxLength);
+        }
+
+        @Override
+        public void feed(char[] chars, int off, int len) {
+            if (ring != null) {
+                state = runTransformed(state, chars, off, len, position, ring, listener);
+            } else {
+                state = run(state, chars, off, len, position, listener);
+            }
+            position += len;
+        }
+
+        @Override
+        protected void resetState() {
+            state = 0;
+            if (ring != null) {
+                ring.reset();
+            }
+        }
+    }
+}
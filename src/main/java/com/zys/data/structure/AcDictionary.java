@@ -0,0 +1,132 @@
+package com.zys.data.structure;
+
+import com.zys.data.structure.trie.ChildMapFactory;
+
+import java.util.Arrays;
+
+/**
+ * 带附加数据（payload）、支持在线增删的 AC 自动机词典
+ * <p>
+ * 核心思路是写时复制：
+ * 1. 写操作在内部的 {@link AC} 上进行，构建过失败指针之后，增删模式串只增量更新受影响的失败指针，不需要整体重建；
+ * 2. 调用 {@link #publish()} 时把当前词典编译成新的 {@link AcDfa}，连同 payload 一起组成只读快照，通过 volatile 引用整体替换；
+ * 3. 读线程每次匹配先取一次快照，整个匹配过程都使用同一个快照，不需要加锁，也不会被写操作阻塞。
+ * <p>
+ * 写操作之间用 synchronized 串行化。多次增删之后调用一次 publish 即可批量生效。
+ * 删除释放的模式串编号会被之后添加的模式串复用，反复增删的词典中编号和 payload 数组的大小只取决于同时存在的模式串个数；
+ * 每个快照中的编号和 payload 是一一对应的，编号不要跨快照使用。
+ *
+ * @author: zys
+ * @date: 2026/10/19 10:05
+ */
+public class AcDictionary<T> {
+    /**
+     * 写操作使用的自动机
+     */
+    private final AC ac;
+
+    /**
+     * 模式串编号对应的 payload，下标是模式串编号
+     */
+    private Object[] payloads = new Object[16];
+
+    /**
+     * 读线程使用的只读快照
+     */
+    private volatile Snapshot<T> snapshot;
+
+    public AcDictionary() {
+        this(ChildMapFactory.hash(), false);
+    }
+
+    /**
+     * @param factory   子节点存储的创建策略
+     * @param byteLevel 是否按 UTF-8 字节构造自动机
+     */
+    public AcDictionary(ChildMapFactory factory, boolean byteLevel) {
+        this.ac = new AC(factory, byteLevel);
+        this.ac.buildFailurePointer();
+        this.snapshot = new Snapshot<>(ac.compile(), new Object[0]);
+    }
+
+    /**
+     * 添加模式串，调用 {@link #publish()} 之后对读线程可见
+     *
+     * @param pattern 模式串
+     * @param payload 附加数据，已存在的模式串会覆盖原来的附加数据
+     * @return 模式串编号
+     */
+    public synchronized int add(char[] pattern, T payload) {
+        int patternId = ac.insert(pattern);
+        if (patternId >= payloads.length) {
+            payloads = Arrays.copyOf(payloads, Math.max(patternId + 1, payloads.length * 2));
+        }
+        payloads[patternId] = payload;
+        return patternId;
+    }
+
+    /**
+     * 删除模式串，调用 {@link #publish()} 之后对读线程可见
+     *
+     * @param pattern 模式串
+     * @return 被删除的模式串编号，不存在时返回 -1
+     */
+    public synchronized int remove(char[] pattern) {
+        int patternId = ac.remove(pattern);
+        if (patternId >= 0) {
+            payloads[patternId] = null;
+        }
+        return patternId;
+    }
+
+    /**
+     * 编译当前词典，替换读线程使用的快照
+     */
+    public synchronized void publish() {
+        snapshot = new Snapshot<>(ac.compile(), payloads.clone());
+    }
+
+    /**
+     * @return 当前的只读快照，同一个快照中的 DFA 与 payload 是一致的
+     */
+    public Snapshot<T> snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 使用当前快照匹配主串
+     *
+     * @param text     主串
+     * @param listener 命中回调，可以通过 {@link Snapshot#payload(int)} 取附加数据
+     */
+    public void match(char[] text, MatchListener listener) {
+        snapshot.dfa().match(text, listener);
+    }
+
+    /**
+     * 只读快照
+     */
+    public static class Snapshot<T> {
+        private final AcDfa dfa;
+
+        private final Object[] payloads;
+
+        Snapshot(AcDfa dfa, Object[] payloads) {
+            this.dfa = dfa;
+            this.payloads = payloads;
+        }
+
+        public AcDfa dfa() {
+            return dfa;
+        }
+
+        /**
+         * @param patternId 模式串编号
+         * @return 附加数据
+         */
+        @SuppressWarnings("unchecked")
+        public T payload(int patternId) {
+            return patternId < payloads.length ? (T) payloads[patternId] : null;
+        }
+    }
+}
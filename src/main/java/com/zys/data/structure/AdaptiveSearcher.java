@@ -0,0 +1,170 @@
+package com.zys.data.structure;
+
+import com.zys.data.structure.trie.ChildMapFactory;
+
+import java.util.Arrays;
+
+/**
+ * 自适应的文本查找：根据模式串的统计信息（以及可选的主串抽样信息 {@link TextProfile}）在编译时选择算法，
+ * 调用方不需要知道哪种算法对自己的数据最快
+ * <p>
+ * 选择规则（阈值来自在英文、DNA、随机二进制、对抗输入上的实测）：
+ * 1. 多个模式串：编译成 {@link AcDfa}，一遍扫描找出所有模式串；
+ * 2. 单个字符，或者主串抽样显示模式串首字符很少出现：{@link KmpMatcher}，状态为 0 时只做首字符扫描，最快；
+ * 3. 2~4 个字符：{@link FirstLastMatcher}，批量过滤首尾字符，不受字符分布影响；
+ * 4. 字符种类很少（DNA 之类）：主串重复度高时用不会退化的 {@link KmpMatcher}，
+ * 否则模式串较长时用带好后缀规则的 {@link BmMatcher}，较短时用 {@link KmpMatcher}；
+ * 5. 字符种类多：较短的模式串用 {@link SundayMatcher}，长模式串用 {@link HorspoolMatcher}。
+ *
+ * @author: zys
+ * @date: 2026/10/20 21:30
+ */
+public class AdaptiveSearcher implements TextSearcher {
+    /**
+     * 首字符频率低于这个值时，首字符扫描最快
+     */
+    private static final double RARE_FIRST_CHAR = 0.01;
+
+    /**
+     * 字符种类不超过这个值时看作小字符集
+     */
+    private static final int SMALL_ALPHABET = 4;
+
+    /**
+     * 重复度超过这个值时看作重复性强的主串
+     */
+    private static final double REPETITIVE = 0.5;
+
+    /**
+     * 可选的算法
+     */
+    public enum Engine {
+        KMP, FIRST_LAST, BOYER_MOORE, HORSPOOL, SUNDAY, AHO_CORASICK
+    }
+
+    private final Engine engine;
+
+    private final TextSearcher delegate;
+
+    private AdaptiveSearcher(Engine engine, TextSearcher delegate) {
+        this.engine = engine;
+        this.delegate = delegate;
+    }
+
+    /**
+     * 只根据模式串选择算法
+     *
+     * @param patterns 一个或多个模式串，不能为空
+     * @return 查找器
+     */
+    public static AdaptiveSearcher compile(char[]... patterns) {
+        return compile(null, patterns);
+    }
+
+    /**
+     * 根据模式串和主串的抽样信息选择算法
+     *
+     * @param profile  主串的抽样信息，可以为 null
+     * @param patterns 一个或多个模式串，不能为空
+     * @return 查找器
+     */
+    public static AdaptiveSearcher compile(TextProfile profile, char[]... patterns) {
+        if (patterns.length == 0) {
+            throw new IllegalArgumentException("至少需要一个模式串");
+        }
+        for (char[] pattern : patterns) {
+            if (pattern.length == 0) {
+                throw new IllegalArgumentException("模式串不能为空");
+            }
+        }
+        if (patterns.length > 1) {
+            AC ac = new AC(ChildMapFactory.hash());
+            for (char[] pattern : patterns) {
+                ac.insert(pattern);
+            }
+            ac.buildFailurePointer();
+            return new AdaptiveSearcher(Engine.AHO_CORASICK, ac.compile());
+        }
+        char[] pattern = patterns[0];
+        Engine engine = choose(pattern, profile);
+        return new AdaptiveSearcher(engine, create(engine, pattern));
+    }
+
+    private static Engine choose(char[] pattern, TextProfile profile) {
+        int m = pattern.length;
+        if (m == 1 || (profile != null && profile.frequency(pattern[0]) < RARE_FIRST_CHAR)) {
+            return Engine.KMP;
+        }
+        if (m <= 4) {
+            return Engine.FIRST_LAST;
+        }
+        int alphabet = profile != null ? profile.alphabetSize() : (int) new String(pattern).chars().distinct().count();
+        if (alphabet <= SMALL_ALPHABET) {
+            if (profile != null && profile.repetitiveness() > REPETITIVE) {
+                return Engine.KMP;
+            }
+            return m >= 16 ? Engine.BOYER_MOORE : Engine.KMP;
+        }
+        return m <= 16 ? Engine.SUNDAY : Engine.HORSPOOL;
+    }
+
+    private static TextSearcher create(Engine engine, char[] pattern) {
+        switch (engine) {
+            case FIRST_LAST:
+                return new FirstLastMatcher(pattern);
+            case BOYER_MOORE:
+                return new BmMatcher(pattern);
+            case HORSPOOL:
+                return new HorspoolMatcher(pattern);
+            case SUNDAY:
+                return new SundayMatcher(pattern);
+            default:
+                return new KmpMatcher(pattern);
+        }
+    }
+
+    /**
+     * @return 选中的算法
+     */
+    public Engine engine() {
+        return engine;
+    }
+
+    @Override
+    public int search(char[] text, int off, int len, MatchListener listener) {
+        return delegate.search(text, off, len, listener);
+    }
+
+    public static void main(String[] args) {
+        char[] dna = "ACGTTGCAACGTACGTTTGACCA".toCharArray();
+        System.out.println(compile(TextProfile.sample(dna), "ACGTACGTTTGACCA".toCharArray()).engine());
+        System.out.println(compile("数据".toCharArray()).engine());
+        System.out.println(compile("he".toCharArray(), "she".toCharArray(), "his".toCharArray()).engine());
+
+        // 周期性很强的主串：按坏字符跳转的算法每次命中之后只能移动一位再从头比较，KMP 沿 border 继续，不需要重新比较
+        char[] text = new char[1_000_000];
+        Arrays.fill(text, 'a');
+        char[] pattern = new char[512];
+        Arrays.fill(pattern, 'a');
+        AdaptiveSearcher adaptive = compile(TextProfile.sample(text), pattern);
+        if (adaptive.engine() != Engine.KMP) {
+            throw new IllegalStateException("重复性强的主串应该选择 KMP，实际选择了 " + adaptive.engine());
+        }
+        MatchListener ignore = (patternId, start, length) -> {
+        };
+        TextSearcher horspool = new HorspoolMatcher(pattern);
+        for (int round = 0; round < 3; round++) {
+            long begin = System.nanoTime();
+            int count = adaptive.search(text, ignore);
+            long adaptiveNanos = System.nanoTime() - begin;
+            begin = System.nanoTime();
+            int expected = horspool.search(text, ignore);
+            long horspoolNanos = System.nanoTime() - begin;
+            if (count != expected) {
+                throw new IllegalStateException("命中个数不一致：" + count + " != " + expected);
+            }
+            System.out.printf("%s %d 个命中 %.1f ms，Horspool %.1f ms%n", adaptive.engine(), count,
+                    adaptiveNanos / 1e6, horspoolNanos / 1e6);
+        }
+    }
+}
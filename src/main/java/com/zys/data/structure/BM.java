@@ -4,6 +4,8 @@ import java.util.Arrays;
 
 /**
  * @decription: BM 字符串匹配算法
+ * 这里的坏字符表只支持 ASCII 范围的字符，需要反复匹配同一个模式串、或者主串中有中文等大字符时，请用预编译的 {@link BmMatcher}，
+ * 它的好后缀表可以在 O(m) 时间内构建，并且支持查找所有匹配位置
  * @author: zys
  * @date: 2019/6/3 21:19
  */
@@ -84,7 +86,7 @@ public class BM {
             return j - suffix[k] + 1;
         }
         // r = j + 2，是因为 数组 prexfix 的下标是后缀子串的长度，所以 r = j + 2，其实是 0 到下标 j + 1的长度
-        for (int r = j + 2; r < m - 1; ++r) {
+        for (int r = j + 2; r <= m - 1; ++r) {
             // m -r 是后缀子串的长度 即 k = m -r
             if (prefix[m - r]) {
                 return r;
@@ -95,6 +97,35 @@ public class BM {
     }
 
 
+    /**
+     * 把 {@link #bm} 包装成 {@link StringMatcher}，和其他匹配器用同一套接口，方便替换和对比
+     * 坏字符表和好后缀数组在创建时构建一次，匹配时直接在 text[off, off + len) 上查找，不复制主串；主串中不能有大于 255 的字符
+     *
+     * @param pattern 模式串
+     * @return 匹配器
+     */
+    public static StringMatcher asMatcher(char[] pattern) {
+        char[] copy = Arrays.copyOf(pattern, pattern.length);
+        int m = copy.length;
+        BM bm = new BM();
+        int[] hash = new int[SIZE];
+        bm.generateHash(copy, m, hash);
+        int[] suffix = new int[m];
+        boolean[] prefix = new boolean[m];
+        bm.generateGS(copy, m, suffix, prefix);
+        return new StringMatcher() {
+            @Override
+            public int length() {
+                return m;
+            }
+
+            @Override
+            public int indexOf(char[] text, int off, int len) {
+                return bm.bm(text, off, len, copy, m, hash, suffix, prefix);
+            }
+        };
+    }
+
     /**
      * BM 算法
      *
@@ -105,6 +136,20 @@ public class BM {
      * @return 匹配成功，返回主串与模式串第一个匹配的字符的位置；匹配失败，返回 -1。
      */
     public int bm(char[] primaryArr, int n, char[] patternArr, int m) {
+        return bm(primaryArr, 0, n, patternArr, m);
+    }
+
+    /**
+     * BM 算法，在主串的 primaryArr[off, off + len) 中查找，不需要复制主串
+     *
+     * @param primaryArr 主串
+     * @param off        查找范围的起始下标
+     * @param len        查找范围的长度
+     * @param patternArr 模式串
+     * @param m          模式串长度
+     * @return 匹配成功，返回第一个匹配的位置（相对于 off）；匹配失败，返回 -1。
+     */
+    public int bm(char[] primaryArr, int off, int len, char[] patternArr, int m) {
         // 创建散列表
         int[] hash = new int[SIZE];
         // 构建坏字符的散列表
@@ -113,16 +158,23 @@ public class BM {
         boolean[] prefix = new boolean[m];
         // 构建好后缀的 suffix 数组 和 prefix 数组
         generateGS(patternArr, m, suffix, prefix);
-        // i 表示主串与模式串对齐的第一个字符
+        return bm(primaryArr, off, len, patternArr, m, hash, suffix, prefix);
+    }
+
+    /**
+     * 用已经构建好的坏字符散列表和好后缀数组查找
+     */
+    private int bm(char[] primaryArr, int off, int n, char[] patternArr, int m, int[] hash, int[] suffix, boolean[] prefix) {
+        // i 表示主串与模式串对齐的第一个字符（相对于 off）
         int i = 0;
         //直至模式串移至主串尾部
-        while (i < n - m) {
+        while (i <= n - m) {
             // j 表示坏字符对应模式串中的下标
             int j;
             // 模式串从后外前匹配
             for (j = m - 1; j >= 0; j--) {
                 // 找到坏字符
-                if (primaryArr[i + j] != patternArr[j]) {
+                if (primaryArr[off + i + j] != patternArr[j]) {
                     break;
                 }
             }
@@ -130,10 +182,10 @@ public class BM {
                 // 匹配成功，返回主串与模式串第一个匹配的字符的位置
                 return i;
             }
-            // 存在坏字符，i+j 是坏字符在主串中的下标，primaryArr[i+j] 是坏字符，
-            // hash[(int) primaryArr[i + j]] 是模式串中与坏字符相等的字符的下标
-            // j - hash[(int) primaryArr[i + j]] 则是模式串需要往后移动的位数，这样模式串中的“坏字符”才能和主串中的坏字符对齐
-            int x = j - hash[(int) primaryArr[i + j]];
+            // 存在坏字符，off+i+j 是坏字符在主串中的下标，primaryArr[off+i+j] 是坏字符，
+            // hash[(int) primaryArr[off + i + j]] 是模式串中与坏字符相等的字符的下标
+            // j - hash[(int) primaryArr[off + i + j]] 则是模式串需要往后移动的位数，这样模式串中的“坏字符”才能和主串中的坏字符对齐
+            int x = j - hash[(int) primaryArr[off + i + j]];
             int y = 0;
             // 判断是否存在好后缀，只要坏字符对应模式串中的下标不是模式串的末尾，就证明存在好后缀
             if (j < m - 1) {
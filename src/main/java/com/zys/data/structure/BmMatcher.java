@@ -0,0 +1,181 @@
+package com.zys.data.structure;
+
+import com.zys.data.structure.util.CharIntMap;
+
+import java.util.Arrays;
+
+/**
+ * 预编译的 BM 匹配器，支持完整的 Unicode 字符集
+ * <p>
+ * {@link BM#bm} 的坏字符表是 int[256]，遇到大于 255 的字符（比如中文）会数组越界，并且每次调用都要重新构建坏字符表和好后缀数组。
+ * BmMatcher 在构造时把两条规则都算好：
+ * 1. 坏字符表用 {@link CharIntMap} 存放每个字符在模式串中最后出现的位置，小于 256 的字符直接查数组，其余字符查散列表，
+ * 表的大小只和模式串中的字符种类有关；
+ * 2. 好后缀规则预先算成 goodSuffix[j]：在 pattern[j] 处遇到坏字符时按好后缀规则要移动的位数，匹配时不用再找 suffix、prefix，
+ * 构建只需要 O(m)，上万个字符的特征串也能很快编译好；
+ * 3. {@link #findAll} 使用 Galil 规则：匹配成功之后按模式串的周期移动，新窗口中和上一个匹配重叠的部分已经知道是相等的，不再重复比较，
+ * 所以即使有大量重叠的匹配（比如在 aaaa...a 中找 aa...a），总的比较次数也是线性的。
+ *
+ * @author: zys
+ * @date: 2026/10/20 14:10
+ */
+public class BmMatcher implements StringMatcher {
+    private final char[] pattern;
+
+    /**
+     * 字符在模式串中最后出现的位置，不存在时为 -1
+     */
+    private final CharIntMap lastOccurrence;
+
+    /**
+     * goodSuffix[j]：在 pattern[j] 处失配（pattern[j + 1, m) 已经匹配）时按好后缀规则移动的位数
+     */
+    private final int[] goodSuffix;
+
+    /**
+     * @param pattern 模式串，不能为空
+     */
+    public BmMatcher(char[] pattern) {
+        int m = pattern.length;
+        if (m == 0) {
+            throw new IllegalArgumentException("模式串不能为空");
+        }
+        this.pattern = Arrays.copyOf(pattern, m);
+        this.lastOccurrence = new CharIntMap(-1);
+        for (int i = 0; i < m; i++) {
+            lastOccurrence.put(pattern[i], i);
+        }
+        this.goodSuffix = buildGoodSuffix(this.pattern);
+    }
+
+    /**
+     * O(m) 构建好后缀移动表
+     * <p>
+     * 先求 suff[i]：以 pattern[i] 结尾的子串和整个模式串的最长公共后缀的长度。
+     * 从右往左求的时候记录上一次暴力比较得到的区间 (g, f]，pattern(g, f] 与模式串的某个后缀相等，
+     * i 落在区间内时 suff[i] 可以直接从对应的 suff[i + m - 1 - f] 得到，只有超出区间时才继续比较，g 只会往左移动，所以总共是 O(m)。
+     * <p>
+     * 再由 suff 得到移动位数（对应 {@link BM} 中的 suffix、prefix 两种情况）：
+     * 1. 好后缀的某个后缀子串同时是模式串的前缀子串（suff[i] == i + 1）：失配位置在 [0, m - 1 - i) 的，移动 m - 1 - i；
+     * 2. 好后缀在模式串中的其他位置出现过：pattern(i - suff[i], i] 与长度为 suff[i] 的好后缀相等，
+     * 在 m - 1 - suff[i] 处失配时移动 m - 1 - i，i 从小到大处理，最后写入的是最靠右的出现位置，即最小的移动位数。
+     * goodSuffix[0] 也是匹配成功之后的移动位数，即模式串的最小周期。
+     */
+    private static int[] buildGoodSuffix(char[] pattern) {
+        int m = pattern.length;
+        int[] suff = new int[m];
+        suff[m - 1] = m;
+        int g = m - 1;
+        int f = m - 1;
+        for (int i = m - 2; i >= 0; i--) {
+            if (i > g && suff[i + m - 1 - f] < i - g) {
+                suff[i] = suff[i + m - 1 - f];
+            } else {
+                if (i < g) {
+                    g = i;
+                }
+                f = i;
+                while (g >= 0 && pattern[g] == pattern[g + m - 1 - f]) {
+                    g--;
+                }
+                suff[i] = f - g;
+            }
+        }
+        int[] shift = new int[m];
+        Arrays.fill(shift, m);
+        int j = 0;
+        for (int i = m - 1; i >= 0; i--) {
+            if (suff[i] == i + 1) {
+                for (; j < m - 1 - i; j++) {
+                    if (shift[j] == m) {
+                        shift[j] = m - 1 - i;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i <= m - 2; i++) {
+            shift[m - 1 - suff[i]] = m - 1 - i;
+        }
+        return shift;
+    }
+
+    @Override
+    public int length() {
+        return pattern.length;
+    }
+
+    @Override
+    public int indexOf(char[] text, int off, int len) {
+        char[] pattern = this.pattern;
+        int m = pattern.length;
+        int last = off + len - m;
+        int i = off;
+        while (i <= last) {
+            int j = m - 1;
+            while (j >= 0 && text[i + j] == pattern[j]) {
+                j--;
+            }
+            if (j < 0) {
+                return i - off;
+            }
+            int x = j - lastOccurrence.get(text[i + j]);
+            i += Math.max(x, goodSuffix[j]);
+        }
+        return -1;
+    }
+
+    @Override
+    public int findAll(char[] text, int off, int len, int[] out) {
+        return scan(text, off, len, out, null);
+    }
+
+    /**
+     * 依次回调所有匹配位置，和 findAll 一样使用 Galil 规则
+     */
+    @Override
+    public int search(char[] text, int off, int len, MatchListener listener) {
+        return scan(text, off, len, null, listener);
+    }
+
+    /**
+     * findAll 和 search 共用的循环：listener 不为 null 时回调 listener，否则写入 out
+     */
+    private int scan(char[] text, int off, int len, int[] out, MatchListener listener) {
+        char[] pattern = this.pattern;
+        int m = pattern.length;
+        // 模式串的最小周期
+        int period = goodSuffix[0];
+        int last = off + len - m;
+        int count = 0;
+        // 当前窗口中 pattern[0, known) 已经确定是匹配的
+        int known = 0;
+        int i = off;
+        while (i <= last) {
+            int j = m - 1;
+            while (j >= known && text[i + j] == pattern[j]) {
+                j--;
+            }
+            if (j < known) {
+                if (listener != null) {
+                    listener.onMatch(0, i - off, m);
+                } else if (count < out.length) {
+                    out[count] = i - off;
+                }
+                count++;
+                // 按周期移动之后，新窗口的前 m - period 个字符就是上一个匹配的后 m - period 个字符
+                i += period;
+                known = m - period;
+            } else {
+                int x = j - lastOccurrence.get(text[i + j]);
+                i += Math.max(x, goodSuffix[j]);
+                known = 0;
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) {
+        BmMatcher matcher = new BmMatcher("数据结构".toCharArray());
+        System.out.println(matcher.indexOf("学习数据结构与算法".toCharArray()));
+    }
+}
@@ -0,0 +1,110 @@
+package com.zys.data.structure;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 字节流的流式扫描器，和 {@link CharStreamScanner} 一样，匹配状态在分块之间保留，
+ * 区别是直接扫描原始字节，不做字符解码，命中位置是字节下标。
+ * <p>
+ * 子类只需要实现 {@link #feed(ByteBuffer)} 和 resetState，Channel、内存映射文件的读取循环都在这里完成。
+ *
+ * @author: zys
+ * @date: 2026/10/20 11:00
+ */
+public abstract class ByteStreamScanner {
+    /**
+     * 从 Channel 读取时的缓冲区大小
+     */
+    private static final int BYTE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 内存映射文件时，每次映射的窗口大小
+     */
+    private static final long MAP_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * 已经扫描过的字节总数，即下一个字节的绝对下标
+     */
+    protected long position;
+
+    /**
+     * 扫描 buffer 中 [position, limit) 的字节，扫描之后 buffer 的 position 移动到 limit，
+     * 本扫描器的 position 往后移动相应的字节数
+     *
+     * @param buffer 分块，可以是堆外的或者内存映射的 ByteBuffer
+     */
+    public abstract void feed(ByteBuffer buffer);
+
+    /**
+     * 把匹配状态恢复到初始状态
+     */
+    protected abstract void resetState();
+
+    /**
+     * 扫描一个字节数组分块
+     *
+     * @param bytes 分块所在的数组
+     * @param off   分块的起始下标
+     * @param len   分块的长度
+     */
+    public void feed(byte[] bytes, int off, int len) {
+        feed(ByteBuffer.wrap(bytes, off, len));
+    }
+
+    /**
+     * @return 已经扫描过的字节总数
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * 重置扫描器，之后可以扫描新的输入
+     */
+    public void reset() {
+        resetState();
+        position = 0;
+    }
+
+    /**
+     * 扫描 Channel 中的全部字节
+     *
+     * @param channel 输入
+     * @return 扫描的字节总数
+     * @throws IOException 读取失败
+     */
+    public long scan(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BYTE_BUFFER_SIZE);
+        while (channel.read(buffer) != -1) {
+            buffer.flip();
+            feed(buffer);
+            buffer.clear();
+        }
+        return position;
+    }
+
+    /**
+     * 以内存映射的方式扫描整个文件，每次只映射一个窗口，状态在窗口之间保留
+     *
+     * @param file 文件路径
+     * @return 扫描的字节总数
+     * @throws IOException 读取失败
+     */
+    public long scan(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long offset = 0; offset < size; offset += MAP_WINDOW_SIZE) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                        Math.min(MAP_WINDOW_SIZE, size - offset));
+                feed(window);
+            }
+        }
+        return position;
+    }
+}
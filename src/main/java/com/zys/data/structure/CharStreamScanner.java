@@ -0,0 +1,186 @@
+package com.zys.data.structure;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 流式扫描器
+ * 把输入切成固定大小的分块依次喂给 {@link #feed(char[], int, int)}，匹配状态在分块之间保留，
+ * 所以跨越分块边界的命中也不会丢失，整个扫描过程只占用常数大小的缓冲区。
+ * <p>
+ * 子类只需要实现 feed 和 resetState，Reader、Channel、内存映射文件的读取循环都在这里完成。
+ * 命中位置统一是解码后的字符下标（不是字节下标）。
+ *
+ * @author: zys
+ * @date: 2026/10/18 10:20
+ */
+public abstract class CharStreamScanner {
+    /**
+     * 字符缓冲区大小
+     */
+    private static final int CHAR_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 内存映射文件时，每次映射的窗口大小
+     */
+    private static final long MAP_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * 已经扫描过的字符总数，即下一个字符的绝对下标
+     */
+    protected long position;
+
+    /**
+     * 扫描一个分块，并把 position 往后移动 len
+     *
+     * @param chars 分块所在的数组
+     * @param off   分块的起始下标
+     * @param len   分块的长度
+     */
+    public abstract void feed(char[] chars, int off, int len);
+
+    /**
+     * 扫描一个完整的分块
+     *
+     * @param chunk 分块
+     */
+    public void feed(char[] chunk) {
+        feed(chunk, 0, chunk.length);
+    }
+
+    /**
+     * 把匹配状态恢复到初始状态
+     */
+    protected abstract void resetState();
+
+    /**
+     * @return 已经扫描过的字符总数
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * 重置扫描器，之后可以扫描新的输入
+     */
+    public void reset() {
+        resetState();
+        position = 0;
+    }
+
+    /**
+     * 扫描 Reader 中的全部字符
+     *
+     * @param reader 输入
+     * @return 扫描的字符总数
+     * @throws IOException 读取失败
+     */
+    public long scan(Reader reader) throws IOException {
+        char[] buffer = new char[CHAR_BUFFER_SIZE];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            feed(buffer, 0, read);
+        }
+        return position;
+    }
+
+    /**
+     * 扫描 Channel 中的全部字节，按 charset 解码后匹配
+     *
+     * @param channel 输入
+     * @param charset 字符集
+     * @return 扫描的字符总数
+     * @throws IOException 读取失败
+     */
+    public long scan(ReadableByteChannel channel, Charset charset) throws IOException {
+        CharsetDecoder decoder = newDecoder(charset);
+        ByteBuffer bytes = ByteBuffer.allocateDirect(CHAR_BUFFER_SIZE);
+        CharBuffer chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+        while (channel.read(bytes) != -1) {
+            bytes.flip();
+            decode(decoder, bytes, chars, false);
+            // 没解码完的半个字符留到下一次读取
+            bytes.compact();
+        }
+        bytes.flip();
+        decode(decoder, bytes, chars, true);
+        flush(decoder, chars);
+        return position;
+    }
+
+    /**
+     * 以内存映射的方式扫描整个文件，每次只映射一个窗口
+     *
+     * @param file    文件路径
+     * @param charset 字符集
+     * @return 扫描的字符总数
+     * @throws IOException 读取失败
+     */
+    public long scan(Path file, Charset charset) throws IOException {
+        CharsetDecoder decoder = newDecoder(charset);
+        CharBuffer chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                // 解码器还没有开始解码，不能直接 flush
+                return position;
+            }
+            long offset = 0;
+            while (offset < size) {
+                long windowSize = Math.min(MAP_WINDOW_SIZE, size - offset);
+                boolean last = offset + windowSize == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset, windowSize);
+                decode(decoder, window, chars, last);
+                // 窗口末尾不完整的字符，从下一个窗口的开头重新解码
+                offset += window.position();
+                if (!last && window.position() == 0) {
+                    throw new IOException("字符长度超过了映射窗口大小");
+                }
+            }
+        }
+        flush(decoder, chars);
+        return position;
+    }
+
+    private static CharsetDecoder newDecoder(Charset charset) {
+        // 日志里的脏数据不应该中断扫描，用替换字符代替
+        return charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    private void decode(CharsetDecoder decoder, ByteBuffer bytes, CharBuffer chars, boolean endOfInput) {
+        while (true) {
+            boolean overflow = decoder.decode(bytes, chars, endOfInput).isOverflow();
+            drain(chars);
+            if (!overflow) {
+                return;
+            }
+        }
+    }
+
+    private void flush(CharsetDecoder decoder, CharBuffer chars) {
+        while (decoder.flush(chars).isOverflow()) {
+            drain(chars);
+        }
+        drain(chars);
+    }
+
+    private void drain(CharBuffer chars) {
+        chars.flip();
+        if (chars.hasRemaining()) {
+            feed(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+        }
+        chars.clear();
+    }
+}
@@ -0,0 +1,93 @@
+package com.zys.data.structure;
+
+import java.util.function.IntPredicate;
+
+/**
+ * 匹配前对字符做的变换，比如大小写折叠、全角转半角、忽略插在字母之间的标点
+ * <p>
+ * 变换在匹配循环中逐个字符进行，不需要先把整个主串复制成规范化之后的 char[]。
+ * 模式串在插入时做同样的变换，所以变换之后再比较就相当于“忽略大小写”“忽略全半角”地匹配。
+ * 返回 {@link #SKIP} 表示跳过这个字符，命中的下标和长度仍然是原始主串中的下标和长度（包含被跳过的字符）。
+ *
+ * @author: zys
+ * @date: 2026/10/19 20:10
+ */
+@FunctionalInterface
+public interface CharTransform {
+    /**
+     * 跳过这个字符
+     */
+    int SKIP = -1;
+
+    /**
+     * @param c 原始字符
+     * @return 变换后的字符，或者 {@link #SKIP}
+     */
+    int apply(char c);
+
+    /**
+     * 先做当前变换，再做 next 变换
+     *
+     * @param next 下一个变换
+     * @return 组合后的变换
+     */
+    default CharTransform andThen(CharTransform next) {
+        return c -> {
+            int r = apply(c);
+            return r == SKIP ? SKIP : next.apply((char) r);
+        };
+    }
+
+    /**
+     * ASCII 大小写折叠：A-Z 转成 a-z
+     *
+     * @return 变换
+     */
+    static CharTransform asciiCaseFold() {
+        return c -> c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    /**
+     * Unicode 大小写折叠，先转大写再转小写，可以把 ſ、K（开尔文符号）这类字符折叠到同一个字符上
+     *
+     * @return 变换
+     */
+    static CharTransform unicodeCaseFold() {
+        return c -> c < 0x80
+                ? (c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c)
+                : Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * 全角转半角：全角 ASCII（U+FF01 ~ U+FF5E）转成对应的半角字符，全角空格（U+3000）转成空格
+     *
+     * @return 变换
+     */
+    static CharTransform fullWidthToHalfWidth() {
+        return c -> {
+            if (c >= '！' && c <= '～') {
+                return c - 0xFEE0;
+            }
+            return c == '　' ? ' ' : c;
+        };
+    }
+
+    /**
+     * 跳过满足条件的字符
+     *
+     * @param predicate 条件，参数是字符
+     * @return 变换
+     */
+    static CharTransform skipIf(IntPredicate predicate) {
+        return c -> predicate.test(c) ? SKIP : c;
+    }
+
+    /**
+     * 跳过所有不是字母、数字的字符（标点、空白、符号），比如 "b.a d" 可以命中 "bad"
+     *
+     * @return 变换
+     */
+    static CharTransform skipNonLetterOrDigit() {
+        return skipIf(c -> !Character.isLetterOrDigit(c));
+    }
+}
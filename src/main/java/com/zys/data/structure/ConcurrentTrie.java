@@ -0,0 +1,260 @@
+package com.zys.data.structure;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 线程安全的 Trie 树，读不加锁
+ * <p>
+ * 每个节点的子节点是一个不可变的有序数组（字符数组 + 子节点数组），通过 volatile 引用发布：
+ * 1. 查询（find、autoCompletion）只读 volatile 引用和不可变数组，没有锁也没有重试，是 wait-free 的，
+ * 步数只和 key 的长度（以及每层二分查找）有关；
+ * 2. 插入新的子节点时复制一份数组，用 CAS 替换节点的子节点引用，CAS 失败说明有别的线程同时修改了这个节点，重新读一次再试；
+ * 不同节点上的插入互不影响，只有在同一个节点上加子节点的线程才会竞争；
+ * 3. 结尾标识用 CAS 设置，同一个 key 被并发插入时只有一个线程返回 true。
+ * <p>
+ * 删除只清除结尾标识，不回收节点：回收节点会和并发的插入产生竞争（插入到已经被摘掉的子树中），
+ * 适合以查询为主、词典只增不减或很少删除的场景。复制数组的代价和分叉数成正比，分叉很多的节点插入会慢一些。
+ * <p>
+ * autoCompletion 是弱一致的：遍历期间并发插入的 key 可能出现也可能不出现在结果中，但不会出现从未插入过的 key。
+ *
+ * @author: zys
+ * @date: 2026/10/19 23:00
+ */
+public class ConcurrentTrie {
+    private static final VarHandle CHILDREN;
+
+    private static final VarHandle TERMINAL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            CHILDREN = lookup.findVarHandle(Node.class, "children", Children.class);
+            TERMINAL = lookup.findVarHandle(Node.class, "terminal", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Node root = new Node();
+
+    /**
+     * 字符变换，null 表示不做变换
+     */
+    private final CharTransform transform;
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    public ConcurrentTrie() {
+        this(null);
+    }
+
+    /**
+     * @param transform 字符变换，插入和查询时都先对字符做变换，null 表示不做变换
+     */
+    public ConcurrentTrie(CharTransform transform) {
+        this.transform = transform;
+    }
+
+    /**
+     * 子节点，创建之后不再修改
+     */
+    private static final class Children {
+        static final Children EMPTY = new Children(new char[0], new Node[0]);
+
+        /**
+         * 升序排列的字符
+         */
+        final char[] keys;
+
+        final Node[] nodes;
+
+        Children(char[] keys, Node[] nodes) {
+            this.keys = keys;
+            this.nodes = nodes;
+        }
+
+        Node get(char key) {
+            int idx = Arrays.binarySearch(keys, key);
+            return idx >= 0 ? nodes[idx] : null;
+        }
+
+        /**
+         * @return 在 at 处插入 (key, node) 之后的新数组
+         */
+        Children insert(int at, char key, Node node) {
+            int n = keys.length;
+            char[] newKeys = new char[n + 1];
+            Node[] newNodes = new Node[n + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(nodes, 0, newNodes, 0, at);
+            newKeys[at] = key;
+            newNodes[at] = node;
+            System.arraycopy(keys, at, newKeys, at + 1, n - at);
+            System.arraycopy(nodes, at, newNodes, at + 1, n - at);
+            return new Children(newKeys, newNodes);
+        }
+    }
+
+    private static final class Node {
+        volatile Children children = Children.EMPTY;
+
+        volatile boolean terminal;
+    }
+
+    /**
+     * 插入 key
+     *
+     * @param key key
+     * @return key 原来不存在时返回 true
+     */
+    public boolean insert(char[] key) {
+        Node p = root;
+        for (char raw : key) {
+            int c = normalize(raw);
+            if (c == CharTransform.SKIP) {
+                continue;
+            }
+            p = childOrCreate(p, (char) c);
+        }
+        if (TERMINAL.compareAndSet(p, false, true)) {
+            size.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 查找 key 是否存在
+     *
+     * @param key key
+     * @return 是否存在
+     */
+    public boolean find(char[] key) {
+        Node p = walk(key);
+        return p != null && p.terminal;
+    }
+
+    /**
+     * 删除 key，只清除结尾标识，节点保留
+     *
+     * @param key key
+     * @return key 原来存在时返回 true
+     */
+    public boolean remove(char[] key) {
+        Node p = walk(key);
+        if (p != null && TERMINAL.compareAndSet(p, true, false)) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 自动补全
+     *
+     * @param prefix 输入的前缀
+     * @return 以 prefix 开头的所有 key（变换之后的形式），按字典序排列，包括 prefix 本身；没有时返回空列表
+     */
+    public List<String> autoCompletion(char[] prefix) {
+        List<String> result = new ArrayList<>();
+        StringBuilder path = new StringBuilder(prefix.length + 16);
+        Node p = root;
+        for (char raw : prefix) {
+            int c = normalize(raw);
+            if (c == CharTransform.SKIP) {
+                continue;
+            }
+            p = p.children.get((char) c);
+            if (p == null) {
+                return result;
+            }
+            path.append((char) c);
+        }
+        collect(p, path, result);
+        return result;
+    }
+
+    /**
+     * @return key 的个数
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private Node walk(char[] key) {
+        Node p = root;
+        for (char raw : key) {
+            int c = normalize(raw);
+            if (c == CharTransform.SKIP) {
+                continue;
+            }
+            p = p.children.get((char) c);
+            if (p == null) {
+                return null;
+            }
+        }
+        return p;
+    }
+
+    /**
+     * 返回字符 key 对应的子节点，不存在时复制子节点数组并用 CAS 发布
+     */
+    private Node childOrCreate(Node p, char key) {
+        Node created = null;
+        while (true) {
+            Children current = p.children;
+            int idx = Arrays.binarySearch(current.keys, key);
+            if (idx >= 0) {
+                return current.nodes[idx];
+            }
+            if (created == null) {
+                created = new Node();
+            }
+            if (CHILDREN.compareAndSet(p, current, current.insert(-idx - 1, key, created))) {
+                return created;
+            }
+        }
+    }
+
+    private void collect(Node p, StringBuilder path, List<String> result) {
+        if (p.terminal) {
+            result.add(path.toString());
+        }
+        // 读一次 volatile 引用，遍历的是这一刻的快照
+        Children children = p.children;
+        int length = path.length();
+        for (int i = 0; i < children.keys.length; i++) {
+            path.append(children.keys[i]);
+            collect(children.nodes[i], path, result);
+            path.setLength(length);
+        }
+    }
+
+    private int normalize(char c) {
+        return transform == null ? c : transform.apply(c);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentTrie trie = new ConcurrentTrie();
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            int id = t;
+            writers[t] = new Thread(() -> {
+                for (int i = id; i < 10000; i += writers.length) {
+                    trie.insert(("key" + i).toCharArray());
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        System.out.println(trie.size() + " " + trie.find("key9999".toCharArray()));
+        System.out.println(trie.autoCompletion("key999".toCharArray()));
+    }
+}
@@ -0,0 +1,369 @@
+package com.zys.data.structure;
+
+import com.zys.data.structure.heap.IndexedLongHeap;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * 外部排序：对放不进内存的 long 文件（每个元素 8 字节，默认大端序）排序
+ * <p>
+ * 分三步：
+ * 1. 生成顺串：把输入文件切成若干段，每段 runLength 个元素，交给线程池并行处理：
+ * 内存映射读入 long[]，排序之后再通过内存映射写到临时文件，每个临时文件就是一个有序的顺串；
+ * 2. 顺串太多时（超过 fanIn 个）先分组并行归并成更长的顺串，减少最终归并时同时打开的文件数；
+ * 3. k 路归并：每个顺串一个游标，游标的当前元素放进以顺串编号为 id 的 {@link IndexedLongHeap} 小顶堆，
+ * 每次取出堆顶元素写入输出，然后把该游标的下一个元素通过 update 放回原位置（只从上往下堆化一次），
+ * 游标读完之后从堆中删除。读写都按固定大小的窗口做内存映射，不需要把整个顺串读进内存。
+ * <p>
+ * 内存占用大约是 线程池并行度 * runLength * 8 字节，比如 16GB 内存、8 个线程时 runLength 可以取 1 亿左右
+ * （单个顺串不能超过 2GB，即 runLength 不超过 268435455），排序结束之后这些数组都可以被回收。
+ * 同时打开的文件数：中间归并不超过 512 个，最终归并是 fanIn + 1 个。临时文件放在 tempDir 中，排序结束（包括失败）后删除。
+ *
+ * @author: zys
+ * @date: 2026/10/21 16:00
+ */
+public class ExternalLongSorter {
+    /**
+     * 一次内存映射不能超过 2GB
+     */
+    private static final int MAX_RUN_LENGTH = Integer.MAX_VALUE / Long.BYTES;
+
+    /**
+     * 默认的归并路数
+     */
+    private static final int DEFAULT_FAN_IN = 256;
+
+    /**
+     * 中间归并时所有并行的组加起来最多同时打开的文件数，低于常见的 1024 个文件描述符限制
+     */
+    private static final int MAX_OPEN_FILES = 512;
+
+    /**
+     * 归并时每次映射的窗口大小（元素个数），8MB
+     */
+    private static final int WINDOW_LENGTH = 1 << 20;
+
+    private final int runLength;
+
+    private final Path tempDir;
+
+    private final ForkJoinPool pool;
+
+    private final ByteOrder order;
+
+    private final int fanIn;
+
+    /**
+     * @param runLength 每个顺串的元素个数
+     * @param tempDir   临时文件目录，需要有和输入文件差不多大的剩余空间
+     */
+    public ExternalLongSorter(int runLength, Path tempDir) {
+        this(runLength, tempDir, ForkJoinPool.commonPool(), ByteOrder.BIG_ENDIAN, DEFAULT_FAN_IN);
+    }
+
+    /**
+     * @param runLength 每个顺串的元素个数，不超过 268435455
+     * @param tempDir   临时文件目录，需要有和输入文件差不多大的剩余空间
+     * @param pool      生成顺串和中间归并的线程池，并行度决定了内存占用
+     * @param order     文件的字节序
+     * @param fanIn     最终归并时最多同时归并的顺串个数，不小于 2
+     */
+    public ExternalLongSorter(int runLength, Path tempDir, ForkJoinPool pool, ByteOrder order, int fanIn) {
+        if (runLength <= 0 || runLength > MAX_RUN_LENGTH) {
+            throw new IllegalArgumentException("runLength 必须在 1 ~ " + MAX_RUN_LENGTH + " 之间：" + runLength);
+        }
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("fanIn 不能小于 2：" + fanIn);
+        }
+        this.runLength = runLength;
+        this.tempDir = tempDir;
+        this.pool = pool;
+        this.order = order;
+        this.fanIn = fanIn;
+    }
+
+    /**
+     * 排序
+     *
+     * @param input  输入文件，长度必须是 8 的整数倍
+     * @param output 输出文件，已经存在时覆盖，不能和输入文件相同
+     * @return 元素个数
+     * @throws IOException 读写失败
+     */
+    public long sort(Path input, Path output) throws IOException {
+        // 所有创建过的临时文件，结束时统一删除
+        List<Path> temps = Collections.synchronizedList(new ArrayList<>());
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            long bytes = in.size();
+            if (bytes % Long.BYTES != 0) {
+                throw new IOException("文件长度不是 8 的整数倍：" + bytes);
+            }
+            long count = bytes / Long.BYTES;
+            List<Path> runs = createRuns(in, count, temps);
+            while (runs.size() > fanIn) {
+                runs = mergePass(runs, temps);
+            }
+            if (runs.size() == 1) {
+                Files.move(runs.get(0), output, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                merge(runs, output);
+            }
+            return count;
+        } finally {
+            for (Path temp : temps) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * 并行生成顺串，返回的顺串按在输入文件中的位置排列
+     */
+    private List<Path> createRuns(FileChannel in, long count, List<Path> temps) throws IOException {
+        // 同时运行的任务之间复用数组，数组个数不超过同时运行的任务数；
+        // 不用 ThreadLocal，否则排序结束之后数组还被线程池中的线程（以及 join 时帮忙执行任务的调用线程）引用着
+        Queue<long[]> buffers = new ConcurrentLinkedQueue<>();
+        int bufferLength = (int) Math.min(runLength, count);
+        List<ForkJoinTask<Path>> tasks = new ArrayList<>();
+        for (long from = 0; from < count; from += runLength) {
+            long start = from;
+            int length = (int) Math.min(runLength, count - from);
+            tasks.add(pool.submit(() -> {
+                long[] data = buffers.poll();
+                if (data == null) {
+                    data = new long[bufferLength];
+                }
+                in.map(FileChannel.MapMode.READ_ONLY, start * Long.BYTES, (long) length * Long.BYTES)
+                        .order(order).asLongBuffer().get(data, 0, length);
+                Arrays.sort(data, 0, length);
+                Path run = createTemp(temps);
+                try (FileChannel out = FileChannel.open(run, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    out.map(FileChannel.MapMode.READ_WRITE, 0, (long) length * Long.BYTES)
+                            .order(order).asLongBuffer().put(data, 0, length);
+                }
+                buffers.offer(data);
+                return run;
+            }));
+        }
+        return joinAll(tasks);
+    }
+
+    /**
+     * 把顺串每 fanIn 个分成一组，各组并行归并成一个更长的顺串
+     * 每组归并要同时打开 fanIn + 1 个文件，同时运行的组数受 MAX_OPEN_FILES 限制，一批归并完再提交下一批
+     */
+    private List<Path> mergePass(List<Path> runs, List<Path> temps) throws IOException {
+        int concurrent = Math.max(1, MAX_OPEN_FILES / (fanIn + 1));
+        List<Path> result = new ArrayList<>();
+        List<ForkJoinTask<Path>> tasks = new ArrayList<>();
+        for (int from = 0; from < runs.size(); from += fanIn) {
+            List<Path> group = runs.subList(from, Math.min(from + fanIn, runs.size()));
+            tasks.add(pool.submit(() -> {
+                Path merged = createTemp(temps);
+                merge(group, merged);
+                for (Path run : group) {
+                    Files.delete(run);
+                }
+                return merged;
+            }));
+            if (tasks.size() == concurrent) {
+                result.addAll(joinAll(tasks));
+                tasks.clear();
+            }
+        }
+        result.addAll(joinAll(tasks));
+        return result;
+    }
+
+    /**
+     * k 路归并，runs 可以为空
+     */
+    private void merge(List<Path> runs, Path output) throws IOException {
+        int k = runs.size();
+        RunCursor[] cursors = new RunCursor[k];
+        try {
+            IndexedLongHeap heap = IndexedLongHeap.minHeap(k);
+            long total = 0;
+            for (int i = 0; i < k; i++) {
+                cursors[i] = new RunCursor(runs.get(i));
+                total += cursors[i].remaining;
+                if (cursors[i].hasNext()) {
+                    heap.add(i, cursors[i].next());
+                }
+            }
+            try (RunWriter writer = new RunWriter(output, total)) {
+                while (!heap.isEmpty()) {
+                    int id = heap.peek();
+                    writer.write(heap.peekPriority());
+                    RunCursor cursor = cursors[id];
+                    if (cursor.hasNext()) {
+                        heap.update(id, cursor.next());
+                    } else {
+                        heap.poll();
+                    }
+                }
+            }
+        } finally {
+            for (RunCursor cursor : cursors) {
+                if (cursor != null) {
+                    cursor.channel.close();
+                }
+            }
+        }
+    }
+
+    private Path createTemp(List<Path> temps) throws IOException {
+        Path temp = Files.createTempFile(tempDir, "run-", ".bin");
+        temps.add(temp);
+        return temp;
+    }
+
+    /**
+     * 按提交顺序等待所有任务，某个任务失败时取消其余任务，等它们都停下来之后抛出任务中的 IOException
+     */
+    private static List<Path> joinAll(List<ForkJoinTask<Path>> tasks) throws IOException {
+        List<Path> result = new ArrayList<>(tasks.size());
+        try {
+            for (ForkJoinTask<Path> task : tasks) {
+                result.add(task.join());
+            }
+        } catch (RuntimeException e) {
+            for (ForkJoinTask<Path> task : tasks) {
+                task.cancel(false);
+            }
+            for (ForkJoinTask<Path> task : tasks) {
+                task.quietlyJoin();
+            }
+            // ForkJoinTask 会把 Callable 抛出的受检异常包装成 RuntimeException
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+            }
+            throw e;
+        }
+        return result;
+    }
+
+    /**
+     * 顺串的读游标，按窗口映射文件
+     */
+    private class RunCursor {
+        private final FileChannel channel;
+
+        /**
+         * 还没有映射的元素个数
+         */
+        private long remaining;
+
+        /**
+         * 下一个窗口在文件中的元素下标
+         */
+        private long position;
+
+        private LongBuffer window = LongBuffer.allocate(0);
+
+        RunCursor(Path run) throws IOException {
+            this.channel = FileChannel.open(run, StandardOpenOption.READ);
+            this.remaining = channel.size() / Long.BYTES;
+        }
+
+        boolean hasNext() throws IOException {
+            if (window.hasRemaining()) {
+                return true;
+            }
+            if (remaining == 0) {
+                return false;
+            }
+            int length = (int) Math.min(WINDOW_LENGTH, remaining);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position * Long.BYTES, (long) length * Long.BYTES)
+                    .order(order).asLongBuffer();
+            position += length;
+            remaining -= length;
+            return true;
+        }
+
+        long next() {
+            return window.get();
+        }
+    }
+
+    /**
+     * 顺序写入 total 个元素，按窗口映射文件
+     */
+    private class RunWriter implements AutoCloseable {
+        private final FileChannel channel;
+
+        private final long total;
+
+        /**
+         * 下一个窗口在文件中的元素下标
+         */
+        private long position;
+
+        private LongBuffer window = LongBuffer.allocate(0);
+
+        RunWriter(Path output, long total) throws IOException {
+            this.channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.total = total;
+        }
+
+        void write(long value) throws IOException {
+            if (!window.hasRemaining()) {
+                int length = (int) Math.min(WINDOW_LENGTH, total - position);
+                window = channel.map(FileChannel.MapMode.READ_WRITE, position * Long.BYTES, (long) length * Long.BYTES)
+                        .order(order).asLongBuffer();
+                position += length;
+            }
+            window.put(value);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Files.createTempDirectory("external-sort");
+        Path input = dir.resolve("ids.bin");
+        Path output = dir.resolve("sorted.bin");
+        int n = 1_000_000;
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            LongBuffer ids = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) n * Long.BYTES).asLongBuffer();
+            Random random = new Random(42);
+            for (int i = 0; i < n; i++) {
+                ids.put(random.nextLong());
+            }
+        }
+        long start = System.nanoTime();
+        long count = new ExternalLongSorter(100_000, dir).sort(input, output);
+        System.out.println(count + " 个元素，耗时 " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.READ)) {
+            LongBuffer sorted = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asLongBuffer();
+            boolean ordered = true;
+            for (int i = 1; i < n; i++) {
+                ordered &= sorted.get(i - 1) <= sorted.get(i);
+            }
+            System.out.println("有序：" + ordered);
+        }
+    }
+}
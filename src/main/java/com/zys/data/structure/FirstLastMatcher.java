@@ -0,0 +1,124 @@
+package com.zys.data.structure;
+
+import java.util.Arrays;
+
+/**
+ * 首尾字符过滤的子串查找，适合短模式串
+ * <p>
+ * 思路来自 SIMD 的 “generic SIMD” 子串查找：先批量找出 text[i] == pattern[0] 并且 text[i + m - 1] == pattern[m - 1] 的候选位置，
+ * 再逐个验证中间的字符。首尾两个字符同时相等的位置很少，绝大部分窗口只需要两次比较。
+ * <p>
+ * 项目的目标版本是 Java 11，没有 jdk.incubator.vector，这里用标量代码模拟 SIMD 的做法：
+ * 每 64 个位置为一组，无分支地比较首尾字符，把结果拼成一个 64 位的掩码，再用 numberOfTrailingZeros 依次取出候选位置。
+ * 组内的循环没有分支、相邻迭代之间没有依赖，CPU 可以流水线并行执行，比逐个位置判断、分支预测经常失败的写法快；
+ * 字节数据可以用 {@link SwarByteMatcher}，一次比较 8 个字节。
+ *
+ * @author: zys
+ * @date: 2026/10/20 16:00
+ */
+public class FirstLastMatcher implements StringMatcher {
+    /**
+     * 每组的位置个数，和掩码的位数相同
+     */
+    private static final int BLOCK = 64;
+
+    private final char[] pattern;
+
+    /**
+     * @param pattern 模式串，不能为空
+     */
+    public FirstLastMatcher(char[] pattern) {
+        if (pattern.length == 0) {
+            throw new IllegalArgumentException("模式串不能为空");
+        }
+        this.pattern = Arrays.copyOf(pattern, pattern.length);
+    }
+
+    @Override
+    public int length() {
+        return pattern.length;
+    }
+
+    @Override
+    public int indexOf(char[] text, int off, int len) {
+        int[] out = new int[1];
+        return find(text, off, len, out, null, true) > 0 ? out[0] : -1;
+    }
+
+    @Override
+    public int findAll(char[] text, int off, int len, int[] out) {
+        return find(text, off, len, out, null, false);
+    }
+
+    @Override
+    public int search(char[] text, int off, int len, MatchListener listener) {
+        return find(text, off, len, null, listener, false);
+    }
+
+    /**
+     * @param listener  不为 null 时回调 listener，否则写入 out
+     * @param firstOnly 是否找到第一个匹配就返回
+     * @return 匹配总数
+     */
+    private int find(char[] text, int off, int len, int[] out, MatchListener listener, boolean firstOnly) {
+        char[] pattern = this.pattern;
+        int m = pattern.length;
+        char first = pattern[0];
+        char last = pattern[m - 1];
+        // 窗口起始位置的上界（包含）
+        int end = off + len - m;
+        int count = 0;
+        int i = off;
+        for (; i + BLOCK - 1 <= end; i += BLOCK) {
+            long mask = 0;
+            for (int k = 0; k < BLOCK; k++) {
+                // 首尾都相等时 diff 为 0，diff - 1 的符号位为 1
+                int diff = (text[i + k] ^ first) | (text[i + k + m - 1] ^ last);
+                mask |= (long) ((diff - 1) >>> 31) << k;
+            }
+            while (mask != 0) {
+                int start = i + Long.numberOfTrailingZeros(mask);
+                if (matchesMiddle(text, start)) {
+                    if (listener != null) {
+                        listener.onMatch(0, start - off, m);
+                    } else if (count < out.length) {
+                        out[count] = start - off;
+                    }
+                    count++;
+                    if (firstOnly) {
+                        return count;
+                    }
+                }
+                mask &= mask - 1;
+            }
+        }
+        // 不足一组的部分逐个判断
+        for (; i <= end; i++) {
+            if (text[i] == first && text[i + m - 1] == last && matchesMiddle(text, i)) {
+                if (listener != null) {
+                    listener.onMatch(0, i - off, m);
+                } else if (count < out.length) {
+                    out[count] = i - off;
+                }
+                count++;
+                if (firstOnly) {
+                    return count;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 验证 pattern[1, m - 1) 是否和 text 中对应的字符相等
+     */
+    private boolean matchesMiddle(char[] text, int start) {
+        char[] pattern = this.pattern;
+        for (int j = 1; j < pattern.length - 1; j++) {
+            if (text[start + j] != pattern[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,8 +1,11 @@
 package com.zys.data.structure;
 
+import java.util.Arrays;
+
 /**
  * @Author: Created by zys
  * @Description: 堆
+ * 大顶堆，空间不够时自动扩容；小顶堆、long / double / 对象元素、decreaseKey 见 {@link com.zys.data.structure.heap} 包
  * @Date: 2019/5/9 22:25
  * @Modified By:
  */
@@ -37,8 +40,9 @@ public class Heap {
     public void add(int data) {
         // 判断堆内数组空间
         if (count >= n) {
-            // 堆满了
-            return;
+            // 堆满了，自动扩容
+            n = Math.max(n * 2, 1);
+            arrays = Arrays.copyOf(arrays, n + 1);
         }
         ++count;
         arrays[count] = data;
@@ -65,6 +69,8 @@ public class Heap {
 
         arrays[1] = arrays[count];
         --count;
+        // 从上往下堆化
+        heapify(arrays, count, 1);
         return maxValue;
     }
 
@@ -120,7 +126,7 @@ public class Heap {
      */
     private void buildHeap(int[] arrays, int n) {
         // n/2+1 到 n 的节点都是叶子节点，所以 i 从 n / 2 到 下标 1 开始，从上往下进行堆化
-        for (int i = n / 2; i > 1; i--) {
+        for (int i = n / 2; i >= 1; i--) {
             heapify(arrays, n, i);
         }
     }
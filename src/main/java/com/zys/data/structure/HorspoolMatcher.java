@@ -0,0 +1,67 @@
+package com.zys.data.structure;
+
+import com.zys.data.structure.util.CharIntMap;
+
+import java.util.Arrays;
+
+/**
+ * Horspool 算法：BM 的简化版，只用坏字符规则
+ * <p>
+ * 不管在哪里失配，都用窗口最后一个字符 text[i + m - 1] 查移动表：移动到模式串中（不算最后一位）这个字符最后出现的位置和它对齐，
+ * 没有出现过就移动整个模式串长度 m。内循环先只比较最后一个字符，不相等就直接移动，开销很小，长模式串时平均每次能跳接近 m 位。
+ * 移动表用 {@link CharIntMap} 存放，支持完整的 Unicode 字符集。
+ *
+ * @author: zys
+ * @date: 2026/10/20 14:20
+ */
+public class HorspoolMatcher implements StringMatcher {
+    private final char[] pattern;
+
+    /**
+     * 窗口最后一个字符是 c 时移动的位数，不在模式串中（不算最后一位）时为 m
+     */
+    private final CharIntMap shift;
+
+    /**
+     * @param pattern 模式串，不能为空
+     */
+    public HorspoolMatcher(char[] pattern) {
+        int m = pattern.length;
+        if (m == 0) {
+            throw new IllegalArgumentException("模式串不能为空");
+        }
+        this.pattern = Arrays.copyOf(pattern, m);
+        this.shift = new CharIntMap(m);
+        for (int i = 0; i < m - 1; i++) {
+            shift.put(pattern[i], m - 1 - i);
+        }
+    }
+
+    @Override
+    public int length() {
+        return pattern.length;
+    }
+
+    @Override
+    public int indexOf(char[] text, int off, int len) {
+        char[] pattern = this.pattern;
+        int m = pattern.length;
+        char lastChar = pattern[m - 1];
+        int last = off + len - m;
+        int i = off;
+        while (i <= last) {
+            char c = text[i + m - 1];
+            if (c == lastChar) {
+                int j = m - 2;
+                while (j >= 0 && text[i + j] == pattern[j]) {
+                    j--;
+                }
+                if (j < 0) {
+                    return i - off;
+                }
+            }
+            i += shift.get(c);
+        }
+        return -1;
+    }
+}
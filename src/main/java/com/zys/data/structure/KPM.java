@@ -112,6 +112,31 @@ public class KPM {
     }
 
 
+    /**
+     * 把 {@link #kmp} 包装成 {@link StringMatcher}，和其他匹配器用同一套接口，方便替换和对比
+     * next 数组在创建时求一次，匹配时直接在 text[off, off + len) 上查找，不复制主串
+     *
+     * @param pattern 模式串
+     * @return 匹配器
+     */
+    public static StringMatcher asMatcher(char[] pattern) {
+        char[] copy = Arrays.copyOf(pattern, pattern.length);
+        int m = copy.length;
+        int[] next = getNext(copy, m);
+        KPM kpm = new KPM();
+        return new StringMatcher() {
+            @Override
+            public int length() {
+                return m;
+            }
+
+            @Override
+            public int indexOf(char[] text, int off, int len) {
+                return kpm.kmp(text, off, len, copy, m, next);
+            }
+        };
+    }
+
     /**
      * KMP 字符串匹配算法
      *
@@ -122,16 +147,36 @@ public class KPM {
      * @return 匹配成功，返回主串与模式串第一个匹配的字符的位置；匹配失败，返回 -1。
      */
     public int kmp(char[] a, int n, char[] b, int m) {
+        return kmp(a, 0, n, b, m, getNext(b, m));
+    }
+
+    /**
+     * KMP 字符串匹配算法，在主串的 a[off, off + len) 中查找，不需要复制主串
+     *
+     * @param a   主串
+     * @param off 查找范围的起始下标
+     * @param len 查找范围的长度
+     * @param b   模式串
+     * @param m   模式串的长度
+     * @return 匹配成功，返回第一个匹配的位置（相对于 off）；匹配失败，返回 -1。
+     */
+    public int kmp(char[] a, int off, int len, char[] b, int m) {
+        return kmp(a, off, len, b, m, getNext(b, m));
+    }
+
+    /**
+     * 用已经求好的 next 数组查找
+     */
+    private int kmp(char[] a, int off, int n, char[] b, int m, int[] next) {
         // j 代表坏字符在模式串中对应的下标
         int j = 0;
-        int[] next = getNext(b, m);
         for (int i = 0; i < n; i++) {
             // 当b[j] != a[i]时，j 即为坏字符在模式串中对应的下标
-            while (j > 0 && b[j] != a[i]) {
+            while (j > 0 && b[j] != a[off + i]) {
                 // next[j - 1] 即为好前缀
                 j = next[j - 1] + 1;
             }
-            if (a[i] == b[j]) {
+            if (a[off + i] == b[j]) {
                 // ++j 有两种含义，一种是看成移动位置的字符串的长度，另一种是坐标往后挪动一位
                 ++j;
             }
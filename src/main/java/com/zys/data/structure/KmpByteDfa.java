@@ -0,0 +1,237 @@
+package com.zys.data.structure;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 字节级的 KMP 自动机（完整 DFA）
+ * <p>
+ * {@link KPM#getNext} 求的是失效函数，失配时可能要沿着 next 回退好几次才能处理完一个字符，每个字符的耗时不固定。
+ * 这里把失效函数展开成一张 [m + 1][256] 的状态转移表：状态 j 表示已经匹配了 pattern[0, j)，
+ * 读入一个字节只需要查一次表，没有内层循环，每个字节的耗时是固定的。
+ * <p>
+ * 构建方法：维护重启状态 x（pattern[1, j) 在自动机上走到的状态），
+ * 第 j 行先复制第 x 行（失配时的行为和状态 x 一样），再把 pattern[j] 这一列改成 j + 1。
+ * 第 m 行（刚匹配成功）也是复制第 x 行，所以匹配成功之后不需要特殊处理，直接继续查表就能找到重叠的匹配。
+ * <p>
+ * 和 {@link AcDfa} 一样，表中存放的是预先乘好的行偏移（状态 * 256），查表时只需要一次加法。
+ * 表的大小是 (m + 1) * 256 个 int，适合较短的模式串（报文特征、分隔符等）。
+ * 可以直接扫描 byte[]、堆外的 ByteBuffer 和内存映射文件，对象不可变，多个线程可以共用。
+ *
+ * @author: zys
+ * @date: 2026/10/20 11:20
+ */
+public class KmpByteDfa {
+    private static final int ALPHABET = 256;
+
+    private final int length;
+
+    /**
+     * table[s + b]：在状态 s（已经乘过 256）读入字节 b 之后的状态（同样乘过 256）
+     */
+    private final int[] table;
+
+    /**
+     * 匹配成功的状态，即 m * 256
+     */
+    private final int accept;
+
+    /**
+     * @param pattern 模式串，不能为空
+     */
+    public KmpByteDfa(byte[] pattern) {
+        int m = pattern.length;
+        if (m == 0) {
+            throw new IllegalArgumentException("模式串不能为空");
+        }
+        this.length = m;
+        this.accept = m * ALPHABET;
+        this.table = new int[(m + 1) * ALPHABET];
+        table[pattern[0] & 0xFF] = ALPHABET;
+        int x = 0;
+        for (int j = 1; j <= m; j++) {
+            System.arraycopy(table, x * ALPHABET, table, j * ALPHABET, ALPHABET);
+            if (j < m) {
+                int b = pattern[j] & 0xFF;
+                table[j * ALPHABET + b] = (j + 1) * ALPHABET;
+                x = table[x * ALPHABET + b] / ALPHABET;
+            }
+        }
+    }
+
+    /**
+     * @return 模式串长度
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * 在 data[off, off + len) 中查找第一个匹配位置
+     *
+     * @return 第一个匹配的起始下标（相对于 off），没有时返回 -1
+     */
+    public int indexOf(byte[] data, int off, int len) {
+        int end = nextMatch(0, data, off, off + len);
+        return end < 0 ? -1 : end - off - length + 1;
+    }
+
+    /**
+     * 查找所有匹配位置（包括互相重叠的），依次写入 out，匹配过程中不分配任何对象
+     *
+     * @param data 主串
+     * @param off  起始下标
+     * @param len  长度
+     * @param out  结果数组，存放匹配的起始下标（相对于 off），写满之后继续计数但不再写入
+     * @return 匹配总数
+     */
+    public int findAll(byte[] data, int off, int len, int[] out) {
+        int to = off + len;
+        int count = 0;
+        int end = nextMatch(0, data, off, to);
+        while (end >= 0) {
+            if (count < out.length) {
+                out[count] = end - off - length + 1;
+            }
+            count++;
+            // 匹配成功之后的状态就是 accept，第 m 行已经包含了继续匹配需要的转移
+            end = nextMatch(accept, data, end + 1, to);
+        }
+        return count;
+    }
+
+    /**
+     * 在 buffer 的 [position, limit) 中查找第一个匹配位置，不改变 buffer 的 position
+     *
+     * @param buffer 可以是堆外的或者内存映射的 ByteBuffer
+     * @return 第一个匹配的起始下标（相对于 position），没有时返回 -1
+     */
+    public int indexOf(ByteBuffer buffer) {
+        int from = buffer.position();
+        int end = nextMatch(0, buffer, from, buffer.limit());
+        return end < 0 ? -1 : end - from - length + 1;
+    }
+
+    /**
+     * 在 buffer 的 [position, limit) 中查找所有匹配位置，不改变 buffer 的 position
+     *
+     * @param buffer 可以是堆外的或者内存映射的 ByteBuffer
+     * @param out    结果数组，存放匹配的起始下标（相对于 position），写满之后继续计数但不再写入
+     * @return 匹配总数
+     */
+    public int findAll(ByteBuffer buffer, int[] out) {
+        int from = buffer.position();
+        int to = buffer.limit();
+        int count = 0;
+        int end = nextMatch(0, buffer, from, to);
+        while (end >= 0) {
+            if (count < out.length) {
+                out[count] = end - from - length + 1;
+            }
+            count++;
+            end = nextMatch(accept, buffer, end + 1, to);
+        }
+        return count;
+    }
+
+    /**
+     * 创建流式扫描器，状态在分块之间保留，跨越分块边界的匹配也能找到
+     *
+     * @param listener 命中回调，模式串编号固定为 0，下标是在整个输入中的绝对字节下标
+     * @return 流式扫描器
+     */
+    public ByteStreamScanner stream(MatchListener listener) {
+        return new DfaByteScanner(listener);
+    }
+
+    /**
+     * 从状态 s 开始扫描 data[from, to)，找到下一个匹配就返回
+     *
+     * @return 匹配的最后一个字节的下标，没有时返回 -1
+     */
+    private int nextMatch(int s, byte[] data, int from, int to) {
+        int[] table = this.table;
+        int accept = this.accept;
+        for (int i = from; i < to; i++) {
+            s = table[s + (data[i] & 0xFF)];
+            if (s == accept) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int nextMatch(int s, ByteBuffer buffer, int from, int to) {
+        if (buffer.hasArray()) {
+            int base = buffer.arrayOffset();
+            int end = nextMatch(s, buffer.array(), base + from, base + to);
+            return end < 0 ? -1 : end - base;
+        }
+        int[] table = this.table;
+        int accept = this.accept;
+        for (int i = from; i < to; i++) {
+            s = table[s + (buffer.get(i) & 0xFF)];
+            if (s == accept) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private class DfaByteScanner extends ByteStreamScanner {
+        private final MatchListener listener;
+
+        private int state;
+
+        DfaByteScanner(MatchListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void feed(ByteBuffer buffer) {
+            int[] table = KmpByteDfa.this.table;
+            int from = buffer.position();
+            int to = buffer.limit();
+            int s = state;
+            // 当前分块起始位置的绝对下标减去 from，加上下标 i 就是绝对下标
+            long base = position - from;
+            if (buffer.hasArray()) {
+                byte[] data = buffer.array();
+                int arrayOffset = buffer.arrayOffset();
+                for (int i = from; i < to; i++) {
+                    s = table[s + (data[arrayOffset + i] & 0xFF)];
+                    if (s == accept) {
+                        listener.onMatch(0, base + i - length + 1, length);
+                    }
+                }
+            } else {
+                for (int i = from; i < to; i++) {
+                    s = table[s + (buffer.get(i) & 0xFF)];
+                    if (s == accept) {
+                        listener.onMatch(0, base + i - length + 1, length);
+                    }
+                }
+            }
+            state = s;
+            position += to - from;
+            buffer.position(to);
+        }
+
+        @Override
+        protected void resetState() {
+            state = 0;
+        }
+    }
+
+    public static void main(String[] args) {
+        KmpByteDfa dfa = new KmpByteDfa("GET /".getBytes(StandardCharsets.US_ASCII));
+        byte[] packet = "xxGET /index GET /a".getBytes(StandardCharsets.US_ASCII);
+        int[] out = new int[4];
+        int count = dfa.findAll(packet, 0, packet.length, out);
+        System.out.println(count + " " + Arrays.toString(Arrays.copyOf(out, count)));
+        ByteBuffer direct = ByteBuffer.allocateDirect(packet.length).put(packet);
+        direct.flip();
+        System.out.println(dfa.indexOf(direct));
+    }
+}
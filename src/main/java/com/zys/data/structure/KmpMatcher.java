@@ -0,0 +1,219 @@
+package com.zys.data.structure;
+
+import java.util.Arrays;
+
+/**
+ * 预编译的 KMP 匹配器
+ * <p>
+ * {@link KPM#kmp} 每次调用都要重新求一遍 next 数组，并且只返回第一个匹配位置。
+ * KmpMatcher 在构造时把失效函数算好，之后可以对任意多个主串重复使用；对象是不可变的，多个线程可以共用同一个匹配器。
+ * <p>
+ * 和 {@link KPM#getNext} 的区别：
+ * 1. border[j] 是 pattern[0, j) 的最长可匹配前缀子串的长度（不是结尾下标），border[m] 用于匹配成功之后继续找重叠的匹配；
+ * 2. 失配时用的是优化过的 shift 数组：如果 pattern[border[j]] == pattern[j]，跳到 border[j] 之后一定还会失配，
+ * 所以直接跳到 shift[border[j]]，失配链更短；
+ * 3. 状态回到 0 时，先用一个简单的循环找模式串的第一个字符，跳过大段不可能匹配的主串。
+ * <p>
+ * 多个模式串同时匹配请用 {@link AC} / {@link AcDfa}。
+ *
+ * @author: zys
+ * @date: 2026/10/20 09:30
+ */
+public class KmpMatcher implements StringMatcher {
+    private final char[] pattern;
+
+    /**
+     * border[j]：pattern[0, j) 的最长可匹配前缀子串的长度，j = 0 时为 -1
+     */
+    private final int[] border;
+
+    /**
+     * shift[j]：在 pattern[j] 处失配之后要继续比较的下标，-1 表示主串往后移一位、从模式串开头重新比较
+     */
+    private final int[] shift;
+
+    /**
+     * @param pattern 模式串，不能为空
+     */
+    public KmpMatcher(char[] pattern) {
+        if (pattern.length == 0) {
+            throw new IllegalArgumentException("模式串不能为空");
+        }
+        int m = pattern.length;
+        this.pattern = Arrays.copyOf(pattern, m);
+        this.border = new int[m + 1];
+        this.shift = new int[m];
+        border[0] = -1;
+        shift[0] = -1;
+        int k = -1;
+        for (int j = 0; j < m; j++) {
+            // 此时 k == border[j]
+            while (k >= 0 && pattern[k] != pattern[j]) {
+                k = border[k];
+            }
+            k++;
+            border[j + 1] = k;
+        }
+        for (int j = 1; j < m; j++) {
+            int b = border[j];
+            shift[j] = pattern[b] == pattern[j] ? shift[b] : b;
+        }
+    }
+
+    @Override
+    public int length() {
+        return pattern.length;
+    }
+
+    @Override
+    public int indexOf(char[] text, int off, int len) {
+        int m = pattern.length;
+        char first = pattern[0];
+        int end = off + len;
+        int j = 0;
+        for (int i = off; i < end; i++) {
+            if (j == 0) {
+                while (i < end && text[i] != first) {
+                    i++;
+                }
+                if (i == end) {
+                    break;
+                }
+            }
+            j = next(j, text[i]);
+            if (j == m) {
+                return i - off - m + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 查找所有匹配位置（包括互相重叠的），依次写入 out，匹配过程中不分配任何对象
+     * out 写满之后继续统计个数但不再写入，调用方可以根据返回值扩容后重新匹配
+     * 匹配成功之后沿 border 继续，不需要回退主串
+     */
+    @Override
+    public int findAll(char[] text, int off, int len, int[] out) {
+        return scan(text, off, len, out, null);
+    }
+
+    /**
+     * 依次回调所有匹配位置，和 findAll 一样匹配成功之后沿 border 继续
+     */
+    @Override
+    public int search(char[] text, int off, int len, MatchListener listener) {
+        return scan(text, off, len, null, listener);
+    }
+
+    /**
+     * findAll 和 search 共用的循环：listener 不为 null 时回调 listener，否则写入 out
+     */
+    private int scan(char[] text, int off, int len, int[] out, MatchListener listener) {
+        int m = pattern.length;
+        char first = pattern[0];
+        int end = off + len;
+        int count = 0;
+        int j = 0;
+        for (int i = off; i < end; i++) {
+            if (j == 0) {
+                while (i < end && text[i] != first) {
+                    i++;
+                }
+                if (i == end) {
+                    break;
+                }
+            }
+            j = next(j, text[i]);
+            if (j == m) {
+                if (listener != null) {
+                    listener.onMatch(0, i - off - m + 1, m);
+                } else if (count < out.length) {
+                    out[count] = i - off - m + 1;
+                }
+                count++;
+                j = border[m];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 查找所有匹配位置
+     *
+     * @param text 主串
+     * @return 所有匹配的起始下标，升序
+     */
+    public int[] findAll(char[] text) {
+        int[] out = new int[16];
+        int count = findAll(text, 0, text.length, out);
+        if (count > out.length) {
+            out = new int[count];
+            findAll(text, 0, text.length, out);
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    /**
+     * 创建流式扫描器，已经匹配的前缀长度在分块之间保留，跨越分块边界的匹配也能找到
+     *
+     * @param listener 命中回调，模式串编号固定为 0，下标是在整个输入中的绝对下标
+     * @return 流式扫描器
+     */
+    public CharStreamScanner stream(MatchListener listener) {
+        return new KmpStreamScanner(listener);
+    }
+
+    /**
+     * 已经匹配了 pattern[0, j)，读入字符 c 之后已经匹配的长度
+     */
+    private int next(int j, char c) {
+        char[] pattern = this.pattern;
+        while (j >= 0 && pattern[j] != c) {
+            j = shift[j];
+        }
+        return j + 1;
+    }
+
+    private class KmpStreamScanner extends CharStreamScanner {
+        private final MatchListener listener;
+
+        /**
+         * 已经匹配的前缀长度
+         */
+        private int state;
+
+        KmpStreamScanner(MatchListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void feed(char[] chars, int off, int len) {
+            int m = pattern.length;
+            int j = state;
+            for (int i = 0; i < len; i++) {
+                j = next(j, chars[off + i]);
+                if (j == m) {
+                    listener.onMatch(0, position + i - m + 1, m);
+                    j = border[m];
+                }
+            }
+            state = j;
+            position += len;
+        }
+
+        @Override
+        protected void resetState() {
+            state = 0;
+        }
+    }
+
+    public static void main(String[] args) {
+        KmpMatcher matcher = new KmpMatcher("abab".toCharArray());
+        char[] text = "abababcabab".toCharArray();
+        System.out.println(matcher.indexOf(text) + " " + Arrays.toString(matcher.findAll(text)));
+        CharStreamScanner scanner = matcher.stream((patternId, start, length) -> System.out.println("命中 " + start));
+        scanner.feed("aba".toCharArray());
+        scanner.feed("bab".toCharArray());
+    }
+}
@@ -0,0 +1,273 @@
+package com.zys.data.structure;
+
+import com.zys.data.structure.util.CharIntMap;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 以内存映射方式加载的 {@link AcDfa}
+ * <p>
+ * 文件中直接存放编译好的转移表，加载时只是把文件映射到内存，不需要反序列化成对象，也不需要重新构建失败指针，
+ * 转移表按需从页缓存中读取。文件是只读映射的，同一台机器上的多个 JVM 加载同一个文件时共享同一份物理内存。
+ * <p>
+ * 文件格式（大端序 int）：
+ * <pre>
+ * 头部 8 个 int：魔数 'ZACD'、版本号、标志位、状态数、字符种数 k、结尾字符数 m、最长模式串长度、保留
+ * int[k]          第 i + 1 列对应的字符
+ * int[状态数 * (k + 1)] 转移表
+ * int[m]          输出链：模式串编号
+ * int[m]          输出链：模式串长度
+ * int[m]          输出链：下一个结尾字符
+ * </pre>
+ * 单次映射最大 2GB，更大的自动机请拆分词典。
+ * 带字符变换的自动机需要通过 {@link #open(Path, CharTransform)} 加载，并提供与构建时相同的变换。
+ *
+ * @author: zys
+ * @date: 2026/10/19 14:20
+ */
+public class MappedAcDfa {
+    static final int MAGIC = 0x5A414344;
+
+    static final int VERSION = 1;
+
+    static final int FLAG_BYTE_LEVEL = 1;
+
+    /**
+     * 构建时使用了字符变换，变换是代码无法保存到文件中，加载时需要重新提供
+     */
+    static final int FLAG_TRANSFORMED = 2;
+
+    private static final int HEADER_INTS = 8;
+
+    private final boolean byteLevel;
+
+    private final CharTransform transform;
+
+    private final CharIntMap classes;
+
+    private final int stride;
+
+    private final int stateCount;
+
+    private final int maxLength;
+
+    /**
+     * 转移表，直接指向映射的文件
+     */
+    private final IntBuffer table;
+
+    private final IntBuffer outputPatternIds;
+
+    private final IntBuffer outputLengths;
+
+    private final IntBuffer outputNext;
+
+    private MappedAcDfa(IntBuffer data, CharTransform transform) throws IOException {
+        if (data.remaining() < HEADER_INTS || data.get(0) != MAGIC) {
+            throw new IOException("不是 AC 自动机文件");
+        }
+        if (data.get(1) != VERSION) {
+            throw new IOException("不支持的版本：" + data.get(1));
+        }
+        this.byteLevel = (data.get(2) & FLAG_BYTE_LEVEL) != 0;
+        if ((data.get(2) & FLAG_TRANSFORMED) != 0 && transform == null) {
+            throw new IOException("自动机构建时使用了字符变换，请通过 open(Path, CharTransform) 加载");
+        }
+        this.transform = transform;
+        this.stateCount = data.get(3);
+        int classCount = data.get(4);
+        int outputCount = data.get(5);
+        this.maxLength = data.get(6);
+        this.stride = classCount + 1;
+        long expected = HEADER_INTS + classCount + (long) stateCount * stride + 3L * outputCount;
+        if (data.remaining() < expected) {
+            throw new IOException("文件不完整");
+        }
+        // 字符到列号的映射很小，加载到堆中
+        this.classes = new CharIntMap(0);
+        for (int i = 0; i < classCount; i++) {
+            classes.put((char) data.get(HEADER_INTS + i), i + 1);
+        }
+        int offset = HEADER_INTS + classCount;
+        this.table = slice(data, offset, stateCount * stride);
+        offset += stateCount * stride;
+        this.outputPatternIds = slice(data, offset, outputCount);
+        offset += outputCount;
+        this.outputLengths = slice(data, offset, outputCount);
+        offset += outputCount;
+        this.outputNext = slice(data, offset, outputCount);
+    }
+
+    /**
+     * 映射文件
+     *
+     * @param file {@link AcDfa#writeTo(Path)} 写出的文件
+     * @return 自动机
+     * @throws IOException 读取失败或文件格式不对
+     */
+    public static MappedAcDfa open(Path file) throws IOException {
+        return open(file, null);
+    }
+
+    /**
+     * 映射带字符变换的自动机文件
+     *
+     * @param file      {@link AcDfa#writeTo(Path)} 写出的文件
+     * @param transform 与构建时相同的字符变换
+     * @return 自动机
+     * @throws IOException 读取失败或文件格式不对
+     */
+    public static MappedAcDfa open(Path file, CharTransform transform) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("文件超过 2GB");
+            }
+            // 映射建立之后关闭 channel 不影响映射的内存
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedAcDfa(buffer.asIntBuffer(), transform);
+        }
+    }
+
+    private static IntBuffer slice(IntBuffer data, int offset, int length) {
+        IntBuffer duplicate = data.duplicate();
+        duplicate.position(offset).limit(offset + length);
+        return duplicate.slice();
+    }
+
+    /**
+     * @return 状态（节点）个数
+     */
+    public int stateCount() {
+        return stateCount;
+    }
+
+    /**
+     * @return 最长的模式串长度
+     */
+    public int maxLength() {
+        return maxLength;
+    }
+
+    /**
+     * 匹配主串，命中时回调 listener
+     *
+     * @param text     主串
+     * @param listener 命中回调
+     */
+    public void match(char[] text, MatchListener listener) {
+        match(text, 0, text.length, listener);
+    }
+
+    /**
+     * 匹配 text[off, off + len)，命中的下标相对于 off
+     *
+     * @param text     主串
+     * @param off      起始下标
+     * @param len      长度
+     * @param listener 命中回调
+     */
+    public void match(char[] text, int off, int len, MatchListener listener) {
+        if (transform != null) {
+            runTransformed(0, text, off, len, 0, new OffsetRing(maxLength), listener);
+            return;
+        }
+        run(0, text, off, len, 0, listener);
+    }
+
+    /**
+     * 创建流式扫描器，状态在分块之间保留
+     *
+     * @param listener 命中回调，下标是在整个输入中的绝对下标
+     * @return 流式扫描器
+     */
+    public CharStreamScanner stream(MatchListener listener) {
+        return new MappedStreamScanner(listener);
+    }
+
+    private int run(int state, char[] text, int off, int len, long position, MatchListener listener) {
+        for (int i = 0; i < len; i++) {
+            state = step(state, text[off + i]);
+            int output = table.get(state);
+            while (output >= 0) {
+                int length = outputLengths.get(output);
+                listener.onMatch(outputPatternIds.get(output), position + i - length + 1, length);
+                output = outputNext.get(output);
+            }
+        }
+        return state;
+    }
+
+    private int runTransformed(int state, char[] text, int off, int len, long position,
+                               OffsetRing ring, MatchListener listener) {
+        for (int i = 0; i < len; i++) {
+            int c = transform.apply(text[off + i]);
+            if (c == CharTransform.SKIP) {
+                continue;
+            }
+            state = step(state, (char) c);
+            long end = position + i;
+            ring.push(end);
+            for (int output = table.get(state); output >= 0; output = outputNext.get(output)) {
+                long start = ring.startOf(outputLengths.get(output));
+                listener.onMatch(outputPatternIds.get(output), start, (int) (end - start + 1));
+            }
+        }
+        return state;
+    }
+
+    /**
+     * 与 AcDfa 的状态转移完全一致
+     */
+    private int step(int state, char c) {
+        if (!byteLevel || c < 0x80) {
+            return transit(state, c);
+        }
+        if (c < 0x800) {
+            return transit(transit(state, 0xC0 | (c >> 6)), 0x80 | (c & 0x3F));
+        }
+        state = transit(state, 0xE0 | (c >> 12));
+        state = transit(state, 0x80 | ((c >> 6) & 0x3F));
+        return transit(state, 0x80 | (c & 0x3F));
+    }
+
+    private int transit(int state, int key) {
+        int cls = classes.get((char) key);
+        return cls == 0 ? 0 : table.get(state + cls);
+    }
+
+    private class MappedStreamScanner extends CharStreamScanner {
+        private final MatchListener listener;
+
+        private int state;
+
+        private final OffsetRing ring;
+
+        MappedStreamScanner(MatchListener listener) {
+            this.listener = listener;
+            this.ring = transform == null ? null : new OffsetRing(maxLength);
+        }
+
+        @Override
+        public void feed(char[] chars, int off, int len) {
+            if (ring != null) {
+                state = runTransformed(state, chars, off, len, position, ring, listener);
+            } else {
+                state = run(state, chars, off, len, position, listener);
+            }
+            position += len;
+        }
+
+        @Override
+        protected void resetState() {
+            state = 0;
+            if (ring != null) {
+                ring.reset();
+            }
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.zys.data.structure;
+
+import com.zys.data.structure.trie.Utf8Keys;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 以内存映射方式加载的只读 Trie 树
+ * <p>
+ * 加载时只是把 {@link Trie#writeTo(Path)} 写出的文件映射到内存，查询直接在映射的内存上进行，不创建任何节点对象，
+ * 同一台机器上的多个 JVM 加载同一个文件时共享同一份物理内存。
+ * <p>
+ * 文件格式（大端序），节点按 BFS 顺序编号，root 是 0 号节点，同一个节点的子节点编号连续并按字符升序排列：
+ * <pre>
+ * 头部 8 个 int：魔数 'ZTRI'、版本号、标志位、节点数 n、保留
+ * int[2n]  每个节点两个 int：第一个子节点的编号、(子节点个数 &lt;&lt; 1) | 是否是结尾字符
+ * char[n]  每个节点的字符（字节级的 Trie 树是字节）
+ * </pre>
+ * 每个节点只占 10 个字节。
+ * 带字符变换的 Trie 树需要通过 {@link #open(Path, CharTransform)} 加载，并提供与构建时相同的变换。
+ *
+ * @author: zys
+ * @date: 2026/10/19 15:10
+ */
+public class MappedTrie {
+    static final int MAGIC = 0x5A545249;
+
+    static final int VERSION = 1;
+
+    static final int FLAG_BYTE_LEVEL = 1;
+
+    /**
+     * 构建时使用了字符变换，文件中的 key 是变换之后的，加载时需要重新提供同样的变换
+     */
+    static final int FLAG_TRANSFORMED = 2;
+
+    static final int HEADER_INTS = 8;
+
+    private final boolean byteLevel;
+
+    /**
+     * 字符变换，null 表示不做变换
+     */
+    private final CharTransform transform;
+
+    private final int nodeCount;
+
+    /**
+     * 节点信息，每个节点两个 int
+     */
+    private final IntBuffer nodes;
+
+    /**
+     * 节点的字符
+     */
+    private final CharBuffer keys;
+
+    private MappedTrie(ByteBuffer buffer, CharTransform transform) throws IOException {
+        IntBuffer header = buffer.asIntBuffer();
+        if (header.remaining() < HEADER_INTS || header.get(0) != MAGIC) {
+            throw new IOException("不是 Trie 树文件");
+        }
+        if (header.get(1) != VERSION) {
+            throw new IOException("不支持的版本：" + header.get(1));
+        }
+        this.byteLevel = (header.get(2) & FLAG_BYTE_LEVEL) != 0;
+        if ((header.get(2) & FLAG_TRANSFORMED) != 0 && transform == null) {
+            throw new IOException("Trie 树构建时使用了字符变换，请通过 open(Path, CharTransform) 加载");
+        }
+        this.transform = transform;
+        this.nodeCount = header.get(3);
+        long expected = HEADER_INTS * 4L + nodeCount * 10L;
+        if (buffer.remaining() < expected) {
+            throw new IOException("文件不完整");
+        }
+        ByteBuffer nodeBytes = buffer.duplicate();
+        nodeBytes.position(HEADER_INTS * 4).limit(HEADER_INTS * 4 + nodeCount * 8);
+        this.nodes = nodeBytes.slice().asIntBuffer();
+        ByteBuffer keyBytes = buffer.duplicate();
+        keyBytes.position(HEADER_INTS * 4 + nodeCount * 8).limit(HEADER_INTS * 4 + nodeCount * 10);
+        this.keys = keyBytes.slice().asCharBuffer();
+    }
+
+    /**
+     * 映射文件
+     *
+     * @param file {@link Trie#writeTo(Path)} 写出的文件
+     * @return Trie 树
+     * @throws IOException 读取失败或文件格式不对
+     */
+    public static MappedTrie open(Path file) throws IOException {
+        return open(file, null);
+    }
+
+    /**
+     * 映射带字符变换的 Trie 树文件
+     *
+     * @param file      {@link Trie#writeTo(Path)} 写出的文件
+     * @param transform 与构建时相同的字符变换
+     * @return Trie 树
+     * @throws IOException 读取失败或文件格式不对
+     */
+    public static MappedTrie open(Path file, CharTransform transform) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("文件超过 2GB");
+            }
+            return new MappedTrie(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), transform);
+        }
+    }
+
+    /**
+     * @return 节点个数
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * 查找有无匹配的字符串
+     *
+     * @param pattern 要匹配的字符串
+     * @return 是否存在
+     */
+    public boolean find(char[] pattern) {
+        int p = walk(pattern);
+        return p >= 0 && isEndingChar(p);
+    }
+
+    /**
+     * 在字节级的 Trie 树中查找二进制 key
+     *
+     * @param bytes 二进制 key
+     * @return 是否存在
+     */
+    public boolean find(byte[] bytes) {
+        if (!byteLevel) {
+            throw new IllegalStateException("只有字节级的 Trie 树支持二进制 key");
+        }
+        int p = 0;
+        for (int i = 0; i < bytes.length && p >= 0; i++) {
+            p = child(p, bytes[i] & 0xFF);
+        }
+        return p >= 0 && isEndingChar(p);
+    }
+
+    /**
+     * 自动补全，语义与 {@link Trie#autoCompletion(char[])} 一致
+     *
+     * @param pattern 输入的字符串
+     * @return 所有以 pattern 为前缀的字符串，前缀不存在或者前缀本身就是一个字符串时返回 null
+     */
+    public List<String> autoCompletion(char[] pattern) {
+        int p = walk(pattern);
+        if (p < 0 || isEndingChar(p)) {
+            return null;
+        }
+        int[] path = new int[16];
+        int length = 0;
+        int[] encoded = new int[Utf8Keys.MAX_BYTES_PER_CHAR];
+        for (char raw : pattern) {
+            int c = normalize(raw);
+            if (c == CharTransform.SKIP) {
+                continue;
+            }
+            int n = byteLevel ? Utf8Keys.encode((char) c, encoded) : 1;
+            for (int i = 0; i < n; i++) {
+                if (length == path.length) {
+                    path = Arrays.copyOf(path, length * 2);
+                }
+                path[length++] = byteLevel ? encoded[i] : c;
+            }
+        }
+        List<String> result = new ArrayList<>();
+        collect(result, p, path, length);
+        return result;
+    }
+
+    private void collect(List<String> list, int p, int[] path, int length) {
+        if (isEndingChar(p)) {
+            list.add(toString(path, length));
+        }
+        int first = nodes.get(p * 2);
+        int count = nodes.get(p * 2 + 1) >>> 1;
+        if (count > 0 && length == path.length) {
+            path = Arrays.copyOf(path, length * 2);
+        }
+        for (int i = first; i < first + count; i++) {
+            path[length] = keys.get(i);
+            collect(list, i, path, length + 1);
+        }
+    }
+
+    private String toString(int[] path, int length) {
+        if (byteLevel) {
+            return Utf8Keys.decode(path, length);
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) path[i];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 沿着字符串往下走
+     *
+     * @return 最后一个字符对应的节点编号，不存在时返回 -1
+     */
+    private int walk(char[] pattern) {
+        int p = 0;
+        for (int j = 0; j < pattern.length && p >= 0; j++) {
+            int c = normalize(pattern[j]);
+            if (c == CharTransform.SKIP) {
+                continue;
+            }
+            if (!byteLevel || c < 0x80) {
+                p = child(p, c);
+            } else if (c < 0x800) {
+                p = child(p, 0xC0 | (c >> 6));
+                p = p < 0 ? p : child(p, 0x80 | (c & 0x3F));
+            } else {
+                p = child(p, 0xE0 | (c >> 12));
+                p = p < 0 ? p : child(p, 0x80 | ((c >> 6) & 0x3F));
+                p = p < 0 ? p : child(p, 0x80 | (c & 0x3F));
+            }
+        }
+        return p;
+    }
+
+    /**
+     * @return 变换后的字符，或者 {@link CharTransform#SKIP}
+     */
+    private int normalize(char c) {
+        return transform == null ? c : transform.apply(c);
+    }
+
+    /**
+     * 在节点 p 的子节点中二分查找字符 key
+     *
+     * @return 子节点编号，不存在时返回 -1
+     */
+    private int child(int p, int key) {
+        int low = nodes.get(p * 2);
+        int high = low + (nodes.get(p * 2 + 1) >>> 1) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char c = keys.get(mid);
+            if (c < key) {
+                low = mid + 1;
+            } else if (c > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isEndingChar(int p) {
+        return (nodes.get(p * 2 + 1) & 1) != 0;
+    }
+}
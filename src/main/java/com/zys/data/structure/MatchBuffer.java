@@ -0,0 +1,103 @@
+package com.zys.data.structure;
+
+import java.util.Arrays;
+
+/**
+ * 可复用的命中结果缓冲区
+ * 命中以 (模式串编号, 起始下标, 长度) 三元组的形式存放在一个 int 数组中，容量不够时自动扩容，
+ * 调用 {@link #clear()} 之后可以重复使用，稳定之后匹配过程中不再分配任何对象。
+ * <p>
+ * 非线程安全，每个线程使用自己的缓冲区。
+ *
+ * @author: zys
+ * @date: 2026/10/18 21:10
+ */
+public class MatchBuffer implements MatchListener {
+    /**
+     * 三元组数组，第 k 个命中存放在 data[3k, 3k + 3)
+     */
+    private int[] data;
+
+    /**
+     * 命中个数
+     */
+    private int count;
+
+    public MatchBuffer() {
+        this(16);
+    }
+
+    /**
+     * @param capacity 初始能存放的命中个数
+     */
+    public MatchBuffer(int capacity) {
+        this.data = new int[Math.max(capacity, 1) * 3];
+    }
+
+    @Override
+    public void onMatch(int patternId, long start, int length) {
+        int k = count * 3;
+        if (k == data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        data[k] = patternId;
+        // 存放的是 int，超大的流式输入请直接使用 MatchListener
+        data[k + 1] = (int) start;
+        data[k + 2] = length;
+        count++;
+    }
+
+    /**
+     * 清空，保留已分配的数组
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * @return 命中个数
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param k 第几个命中
+     * @return 模式串编号
+     */
+    public int patternId(int k) {
+        checkIndex(k);
+        return data[k * 3];
+    }
+
+    /**
+     * @param k 第几个命中
+     * @return 起始下标
+     */
+    public int start(int k) {
+        checkIndex(k);
+        return data[k * 3 + 1];
+    }
+
+    /**
+     * @param k 第几个命中
+     * @return 长度
+     */
+    public int length(int k) {
+        checkIndex(k);
+        return data[k * 3 + 2];
+    }
+
+    /**
+     * @return 底层的三元组数组，只有前 size() * 3 个元素有效
+     */
+    public int[] array() {
+        return data;
+    }
+
+    private void checkIndex(int k) {
+        if (k < 0 || k >= count) {
+            throw new IndexOutOfBoundsException("k: " + k + ", size: " + count);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.zys.data.structure;
+
+/**
+ * 多模式串匹配的命中回调
+ * 只传递基本类型，匹配的热路径上不需要为每次命中创建对象
+ *
+ * @author: zys
+ * @date: 2026/10/18 10:12
+ */
+@FunctionalInterface
+public interface MatchListener {
+
+    /**
+     * 命中一个模式串
+     *
+     * @param patternId 模式串编号，即模式串插入的顺序（从 0 开始）
+     * @param start     命中位置在整个输入中的绝对下标，流式扫描时跨越多个分块累计
+     * @param length    命中的模式串长度
+     */
+    void onMatch(int patternId, long start, int length);
+}
@@ -0,0 +1,30 @@
+package com.zys.data.structure;
+
+/**
+ * 多模式串匹配的模式
+ *
+ * @author: zys
+ * @date: 2026/10/19 17:00
+ */
+public enum MatchMode {
+    /**
+     * 报告所有命中，命中之间可以重叠
+     */
+    ALL,
+    /**
+     * 只报告第一个命中（结尾下标最小的），找到之后立即停止扫描，适合“是否包含敏感词”这类判断
+     */
+    FIRST,
+    /**
+     * 只统计命中个数（允许重叠），不回调
+     */
+    COUNT,
+    /**
+     * 最左最长：从左往右，每次取起始下标最小的命中，起始下标相同时取最长的，命中之间不重叠
+     */
+    LEFTMOST_LONGEST,
+    /**
+     * 最左优先：从左往右，每次取起始下标最小的命中，起始下标相同时取最先插入的模式串，命中之间不重叠
+     */
+    LEFTMOST_FIRST
+}
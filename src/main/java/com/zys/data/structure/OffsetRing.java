@@ -0,0 +1,76 @@
+package com.zys.data.structure;
+
+import java.util.Arrays;
+
+/**
+ * 变换后字符到原始下标的环形缓冲区
+ * <p>
+ * 字符变换可能跳过一些字符，变换后的第 k 个字符不再对应原始主串的第 k 个字符。
+ * 命中的长度不会超过最长的模式串，所以只需要记住最近 maxLength 个变换后字符的原始下标，
+ * 就能算出命中在原始主串中的起始下标，不需要保存整个映射。
+ *
+ * @author: zys
+ * @date: 2026/10/19 20:30
+ */
+final class OffsetRing {
+    private long[] positions;
+
+    private int mask;
+
+    /**
+     * 已经放入的变换后字符总数
+     */
+    private long count;
+
+    OffsetRing(int maxLength) {
+        int capacity = Integer.highestOneBit(Math.max(maxLength, 1) * 2 - 1);
+        this.positions = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * 模式串变长之后扩容，保留最近的原始下标
+     *
+     * @param maxLength 最长的模式串长度
+     */
+    void ensureCapacity(int maxLength) {
+        if (maxLength <= positions.length) {
+            return;
+        }
+        int capacity = Integer.highestOneBit(maxLength * 2 - 1);
+        long[] expanded = new long[capacity];
+        long from = Math.max(0, count - positions.length);
+        for (long k = from; k < count; k++) {
+            expanded[(int) (k & (capacity - 1))] = positions[(int) (k & mask)];
+        }
+        positions = expanded;
+        mask = capacity - 1;
+    }
+
+    /**
+     * @param position 下一个变换后字符的原始下标
+     */
+    void push(long position) {
+        positions[(int) (count++ & mask)] = position;
+    }
+
+    /**
+     * @param length 以最近一个字符结尾的命中的长度（变换后的字符数）
+     * @return 命中在原始主串中的起始下标
+     */
+    long startOf(int length) {
+        return positions[(int) ((count - length) & mask)];
+    }
+
+    /**
+     * @return 已经放入的变换后字符总数
+     */
+    long count() {
+        return count;
+    }
+
+    void reset() {
+        count = 0;
+        Arrays.fill(positions, 0);
+    }
+}
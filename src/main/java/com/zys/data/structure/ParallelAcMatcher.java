@@ -0,0 +1,172 @@
+package com.zys.data.structure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * 多线程 AC 自动机匹配
+ * <p>
+ * 核心思路：
+ * 1. 把主串切成若干分块，每个分块交给 ForkJoinPool 中的一个线程，从 root 开始扫描；
+ * 2. 分块只负责起始下标落在自己范围 [start, end) 内的命中，为了找全这些命中，扫描范围要往后多延伸 最长模式串长度 - 1 个字符，
+ * 即相邻分块重叠 最长模式串长度 - 1。从 root 开始扫描，能找到所有起始下标不小于 start 的命中，所以不会漏；
+ * 每个命中只属于起始下标所在的那一个分块，所以也不会重复；
+ * 3. 每个分块内部按起始下标排序，分块之间本来就是有序的，按分块顺序依次输出就是全局有序的结果。
+ * <p>
+ * 编译后的 {@link AcDfa} 是只读的，所以多个线程可以共用同一张表。
+ *
+ * @author: zys
+ * @date: 2026/10/18 19:30
+ */
+public class ParallelAcMatcher {
+    /**
+     * 默认的分块大小
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final AcDfa dfa;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * 分块大小
+     */
+    private final int chunkSize;
+
+    public ParallelAcMatcher(AcDfa dfa) {
+        this(dfa, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param dfa       编译好的自动机
+     * @param pool      执行扫描的线程池
+     * @param chunkSize 分块大小，分块太小时重叠部分的重复扫描占比会变大
+     */
+    public ParallelAcMatcher(AcDfa dfa, ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize 必须大于 0");
+        }
+        this.dfa = dfa;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 并行匹配主串，按起始下标从小到大回调 listener（起始下标相同时短的在前），回调都在调用线程中执行
+     *
+     * @param text     主串
+     * @param listener 命中回调
+     */
+    public void match(char[] text, MatchListener listener) {
+        int n = text.length;
+        // 主串不够切成两块时，没必要多线程
+        if (n <= chunkSize) {
+            scanChunk(text, 0).emit(listener);
+            return;
+        }
+        List<ForkJoinTask<ChunkMatches>> tasks = new ArrayList<>();
+        for (int start = 0; start < n; start += chunkSize) {
+            int chunkStart = start;
+            tasks.add(pool.submit(() -> scanChunk(text, chunkStart)));
+        }
+        // 按分块顺序输出，前面的分块输出时后面的分块还可以继续扫描
+        for (ForkJoinTask<ChunkMatches> task : tasks) {
+            task.join().emit(listener);
+        }
+    }
+
+    /**
+     * 扫描一个分块
+     *
+     * @param text  主串
+     * @param start 分块的起始下标
+     * @return 起始下标落在分块内的命中
+     */
+    private ChunkMatches scanChunk(char[] text, int start) {
+        int end = (int) Math.min(text.length, (long) start + chunkSize);
+        // 往后多扫描 最长模式串长度 - 1 个字符，保证起始下标在分块内的命中都能找到
+        int scanEnd = scanEnd(text, end);
+        ChunkMatches matches = new ChunkMatches(start);
+        int limit = end - start;
+        dfa.match(text, start, scanEnd - start, (patternId, matchStart, length) -> {
+            // 起始下标在分块之外的命中属于下一个分块
+            if (matchStart < limit) {
+                matches.add(patternId, (int) matchStart, length);
+            }
+        });
+        return matches;
+    }
+
+    /**
+     * 分块扫描的结束下标：往后延伸 最长模式串长度 - 1 个字符，
+     * 带跳过字符的变换时，被跳过的字符不占模式串长度，要延伸到数够这么多个没有被跳过的字符为止
+     */
+    private int scanEnd(char[] text, int end) {
+        int extra = Math.max(dfa.maxLength() - 1, 0);
+        CharTransform transform = dfa.transform();
+        if (transform == null) {
+            return (int) Math.min(text.length, (long) end + extra);
+        }
+        int i = end;
+        while (i < text.length && extra > 0) {
+            if (transform.apply(text[i]) != CharTransform.SKIP) {
+                extra--;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 一个分块内的命中，用基本类型数组存放
+     */
+    private static class ChunkMatches {
+        /**
+         * 分块的起始下标
+         */
+        private final int base;
+
+        private int[] patternIds = new int[16];
+
+        private int[] starts = new int[16];
+
+        private int[] lengths = new int[16];
+
+        private int count;
+
+        ChunkMatches(int base) {
+            this.base = base;
+        }
+
+        void add(int patternId, int start, int length) {
+            if (count == starts.length) {
+                patternIds = Arrays.copyOf(patternIds, count * 2);
+                starts = Arrays.copyOf(starts, count * 2);
+                lengths = Arrays.copyOf(lengths, count * 2);
+            }
+            patternIds[count] = patternId;
+            starts[count] = start;
+            lengths[count] = length;
+            count++;
+        }
+
+        /**
+         * 按起始下标排序后输出。命中是按结尾下标的顺序找到的，
+         * 把 (起始下标, 找到的顺序) 拼成一个 long 排序，起始下标相同时结尾早（短）的在前
+         */
+        void emit(MatchListener listener) {
+            long[] order = new long[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = ((long) starts[i] << 32) | i;
+            }
+            Arrays.sort(order);
+            for (long key : order) {
+                int i = (int) key;
+                listener.onMatch(patternIds[i], (long) base + starts[i], lengths[i]);
+            }
+        }
+    }
+}
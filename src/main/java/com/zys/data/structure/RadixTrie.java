@@ -0,0 +1,498 @@
+package com.zys.data.structure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * 压缩 Trie 树（Radix / Patricia Trie）
+ * <p>
+ * 和 {@link Trie} 的区别：
+ * 1. 只有一个子节点的链会合并成一条边，边上存放一段字符（label），节点数不超过 key 的个数的两倍；
+ * 2. 节点不是对象，而是若干个并行的基本类型数组中的一个下标，每个节点只占 4 个 int，
+ * 所有 label 存放在同一个 char[] 里，节点只记录 label 的起始下标和长度；
+ * 3. 删除 key 释放的节点放进空闲链表，下次插入时复用（节点池）。
+ * <p>
+ * 子节点用“第一个子节点 + 下一个兄弟节点”的链表表示，兄弟节点按 label 首字符升序排列，
+ * 所以自动补全的结果是有序的；分叉很多的节点查找子节点是线性的，适合分叉数不大的字典。
+ * <p>
+ * 非线程安全。
+ *
+ * @author: zys
+ * @date: 2026/10/19 21:30
+ */
+public class RadixTrie {
+    private static final int ROOT = 0;
+
+    private static final int NIL = -1;
+
+    /**
+     * 节点 label 在 labels 中的起始下标
+     */
+    private int[] labelOffset;
+
+    /**
+     * 节点 label 的长度，根节点为 0
+     */
+    private int[] labelLength;
+
+    /**
+     * 第一个子节点，没有时为 NIL
+     */
+    private int[] firstChild;
+
+    /**
+     * 下一个兄弟节点，没有时为 NIL；空闲节点用它串成空闲链表
+     */
+    private int[] nextSibling;
+
+    /**
+     * 是否是某个 key 的结尾
+     */
+    private final BitSet terminal = new BitSet();
+
+    /**
+     * 已经分配过的节点数，下标不小于它的位置还没有使用过
+     */
+    private int allocated;
+
+    /**
+     * 空闲链表的表头
+     */
+    private int freeHead = NIL;
+
+    /**
+     * 正在使用的节点数
+     */
+    private int nodeCount;
+
+    /**
+     * 所有节点的 label
+     */
+    private char[] labels;
+
+    /**
+     * labels 中已经使用的长度
+     */
+    private int labelSize;
+
+    /**
+     * 正在使用的节点的 label 总长度，labelSize - liveChars 就是删除、合并之后留下的空洞
+     */
+    private int liveChars;
+
+    /**
+     * key 的个数
+     */
+    private int size;
+
+    public RadixTrie() {
+        this(16);
+    }
+
+    /**
+     * @param expectedNodes 预计的节点数，避免反复扩容
+     */
+    public RadixTrie(int expectedNodes) {
+        int capacity = Math.max(expectedNodes, 1);
+        labelOffset = new int[capacity];
+        labelLength = new int[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        labels = new char[Math.max(capacity * 4, 16)];
+        allocate(0, 0);
+    }
+
+    /**
+     * 插入 key
+     *
+     * @param key key
+     * @return key 原来不存在时返回 true
+     */
+    public boolean insert(char[] key) {
+        int p = ROOT;
+        int i = 0;
+        while (i < key.length) {
+            // 兄弟节点按首字符升序，找到第一个首字符不小于 key[i] 的子节点
+            int prev = NIL;
+            int c = firstChild[p];
+            while (c != NIL && labels[labelOffset[c]] < key[i]) {
+                prev = c;
+                c = nextSibling[c];
+            }
+            if (c == NIL || labels[labelOffset[c]] != key[i]) {
+                // 没有可以共用的边，剩下的字符整体作为一个新的叶子节点
+                int remaining = key.length - i;
+                int offset = appendLabel(key, i, remaining);
+                int leaf = allocate(offset, remaining);
+                nextSibling[leaf] = c;
+                if (prev == NIL) {
+                    firstChild[p] = leaf;
+                } else {
+                    nextSibling[prev] = leaf;
+                }
+                terminal.set(leaf);
+                size++;
+                return true;
+            }
+            int k = commonPrefix(c, key, i);
+            if (k < labelLength[c]) {
+                // key 在边的中间分叉，把边拆成两段
+                split(c, k);
+            }
+            p = c;
+            i += k;
+        }
+        if (terminal.get(p)) {
+            return false;
+        }
+        terminal.set(p);
+        size++;
+        return true;
+    }
+
+    /**
+     * 查找 key 是否存在
+     *
+     * @param key key
+     * @return 是否存在
+     */
+    public boolean find(char[] key) {
+        int p = walk(key);
+        return p != NIL && terminal.get(p);
+    }
+
+    /**
+     * 删除 key，删除之后重新合并只剩一个子节点的链，保持压缩的形态
+     *
+     * @param key key
+     * @return key 原来存在时返回 true
+     */
+    public boolean remove(char[] key) {
+        int parent = NIL;
+        int p = ROOT;
+        int i = 0;
+        while (i < key.length) {
+            int c = child(p, key[i]);
+            if (c == NIL || key.length - i < labelLength[c] || commonPrefix(c, key, i) < labelLength[c]) {
+                return false;
+            }
+            parent = p;
+            p = c;
+            i += labelLength[c];
+        }
+        if (!terminal.get(p)) {
+            return false;
+        }
+        terminal.clear(p);
+        size--;
+        if (p == ROOT) {
+            return true;
+        }
+        if (firstChild[p] == NIL) {
+            unlink(parent, p);
+            free(p);
+            if (parent != ROOT && !terminal.get(parent) && hasSingleChild(parent)) {
+                merge(parent);
+            }
+        } else if (hasSingleChild(p)) {
+            merge(p);
+        }
+        return true;
+    }
+
+    /**
+     * 自动补全
+     *
+     * @param prefix 输入的前缀
+     * @return 以 prefix 开头的所有 key，按字典序排列，包括 prefix 本身；没有时返回空列表
+     */
+    public List<String> autoCompletion(char[] prefix) {
+        List<String> result = new ArrayList<>();
+        StringBuilder path = new StringBuilder(prefix.length + 16).append(prefix);
+        int p = ROOT;
+        int i = 0;
+        while (i < prefix.length) {
+            int c = child(p, prefix[i]);
+            if (c == NIL) {
+                return result;
+            }
+            int k = commonPrefix(c, prefix, i);
+            if (k < labelLength[c]) {
+                if (i + k < prefix.length) {
+                    // 在边的中间就对不上了
+                    return result;
+                }
+                // 前缀在边的中间结束，补上这条边剩下的字符
+                path.append(labels, labelOffset[c] + k, labelLength[c] - k);
+            }
+            p = c;
+            i += k;
+        }
+        collect(p, path, result);
+        return result;
+    }
+
+    /**
+     * @return key 的个数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return 正在使用的节点数（包括根节点）
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return 节点数组和 label 数组占用的字节数估计，不包括对象头
+     */
+    public long memoryBytes() {
+        return 4L * 4 * labelOffset.length + 2L * labels.length + terminal.size() / 8;
+    }
+
+    /**
+     * 整理 label 数组去掉空洞，并把数组缩小到刚好够用，适合插入完成之后只读使用的字典
+     * 空闲链表中的节点仍然保留，下标不会改变
+     */
+    public void trimToSize() {
+        compactLabels(liveChars);
+        labelOffset = Arrays.copyOf(labelOffset, allocated);
+        labelLength = Arrays.copyOf(labelLength, allocated);
+        firstChild = Arrays.copyOf(firstChild, allocated);
+        nextSibling = Arrays.copyOf(nextSibling, allocated);
+    }
+
+    /**
+     * 沿着 key 往下走
+     *
+     * @return key 恰好在某个节点结束时返回这个节点，否则返回 NIL
+     */
+    private int walk(char[] key) {
+        int p = ROOT;
+        int i = 0;
+        while (i < key.length) {
+            int c = child(p, key[i]);
+            if (c == NIL || key.length - i < labelLength[c] || commonPrefix(c, key, i) < labelLength[c]) {
+                return NIL;
+            }
+            p = c;
+            i += labelLength[c];
+        }
+        return p;
+    }
+
+    /**
+     * @return 节点 p 的 label 首字符为 ch 的子节点，没有时返回 NIL
+     */
+    private int child(int p, char ch) {
+        for (int c = firstChild[p]; c != NIL; c = nextSibling[c]) {
+            char first = labels[labelOffset[c]];
+            if (first == ch) {
+                return c;
+            }
+            if (first > ch) {
+                break;
+            }
+        }
+        return NIL;
+    }
+
+    /**
+     * @return 节点 c 的 label 和 key[from...] 的公共前缀长度
+     */
+    private int commonPrefix(int c, char[] key, int from) {
+        int offset = labelOffset[c];
+        int max = Math.min(labelLength[c], key.length - from);
+        int k = 0;
+        while (k < max && labels[offset + k] == key[from + k]) {
+            k++;
+        }
+        return k;
+    }
+
+    /**
+     * 把节点 c 的边在第 k 个字符处拆开：c 保留前 k 个字符，后半段成为 c 唯一的子节点，继承 c 原来的子节点和结尾标识
+     * 两段 label 仍然指向 labels 中原来的位置，不需要复制字符
+     */
+    private void split(int c, int k) {
+        int tail = allocate(labelOffset[c] + k, labelLength[c] - k);
+        // 拆开之后 label 总长度不变，allocate 多算的部分减回来
+        liveChars -= labelLength[c] - k;
+        firstChild[tail] = firstChild[c];
+        if (terminal.get(c)) {
+            terminal.set(tail);
+            terminal.clear(c);
+        }
+        labelLength[c] = k;
+        firstChild[c] = tail;
+    }
+
+    /**
+     * 把节点 p 和它唯一的子节点合并成一个节点
+     */
+    private void merge(int p) {
+        int c = firstChild[p];
+        int length = labelLength[p] + labelLength[c];
+        if (labelOffset[p] + labelLength[p] != labelOffset[c]) {
+            // 两段 label 在 labels 中不相邻，复制到末尾拼起来
+            int offset = reserveLabel(length);
+            System.arraycopy(labels, labelOffset[p], labels, offset, labelLength[p]);
+            System.arraycopy(labels, labelOffset[c], labels, offset + labelLength[p], labelLength[c]);
+            labelOffset[p] = offset;
+        }
+        // 合并之后 label 总长度不变，c 的 label 算在 p 上
+        liveChars += labelLength[c];
+        labelLength[p] = length;
+        firstChild[p] = firstChild[c];
+        if (terminal.get(c)) {
+            terminal.set(p);
+        }
+        free(c);
+    }
+
+    private boolean hasSingleChild(int p) {
+        return firstChild[p] != NIL && nextSibling[firstChild[p]] == NIL;
+    }
+
+    /**
+     * 把节点 c 从父节点 p 的子节点链表中摘下来
+     */
+    private void unlink(int p, int c) {
+        if (firstChild[p] == c) {
+            firstChild[p] = nextSibling[c];
+            return;
+        }
+        int prev = firstChild[p];
+        while (nextSibling[prev] != c) {
+            prev = nextSibling[prev];
+        }
+        nextSibling[prev] = nextSibling[c];
+    }
+
+    private void collect(int p, StringBuilder path, List<String> result) {
+        if (terminal.get(p)) {
+            result.add(path.toString());
+        }
+        int length = path.length();
+        for (int c = firstChild[p]; c != NIL; c = nextSibling[c]) {
+            path.append(labels, labelOffset[c], labelLength[c]);
+            collect(c, path, result);
+            path.setLength(length);
+        }
+    }
+
+    /**
+     * 分配一个节点，优先复用空闲链表中的节点
+     */
+    private int allocate(int offset, int length) {
+        int node;
+        if (freeHead != NIL) {
+            node = freeHead;
+            freeHead = nextSibling[node];
+        } else {
+            if (allocated == labelOffset.length) {
+                int capacity = allocated + (allocated >> 1) + 1;
+                labelOffset = Arrays.copyOf(labelOffset, capacity);
+                labelLength = Arrays.copyOf(labelLength, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+            }
+            node = allocated++;
+        }
+        labelOffset[node] = offset;
+        labelLength[node] = length;
+        firstChild[node] = NIL;
+        nextSibling[node] = NIL;
+        liveChars += length;
+        nodeCount++;
+        return node;
+    }
+
+    /**
+     * 释放节点，放回空闲链表
+     */
+    private void free(int node) {
+        liveChars -= labelLength[node];
+        labelLength[node] = 0;
+        firstChild[node] = NIL;
+        terminal.clear(node);
+        nextSibling[node] = freeHead;
+        freeHead = node;
+        nodeCount--;
+    }
+
+    /**
+     * 把 key[from, from + length) 追加到 labels 末尾
+     *
+     * @return 追加的位置
+     */
+    private int appendLabel(char[] key, int from, int length) {
+        int offset = reserveLabel(length);
+        System.arraycopy(key, from, labels, offset, length);
+        return offset;
+    }
+
+    /**
+     * 在 labels 末尾预留 length 个字符，空间不够时，空洞超过一半就先整理，否则扩容
+     *
+     * @return 预留的位置
+     */
+    private int reserveLabel(int length) {
+        if (labelSize + length > labels.length) {
+            int needed = liveChars + length;
+            if (labelSize - liveChars > labelSize >> 1 && needed <= labels.length) {
+                compactLabels(labels.length);
+            } else {
+                compactLabels(Math.max(needed + (needed >> 1), labels.length + (labels.length >> 1)));
+            }
+        }
+        int offset = labelSize;
+        labelSize += length;
+        return offset;
+    }
+
+    /**
+     * 把所有正在使用的 label 复制到新数组中，去掉空洞
+     */
+    private void compactLabels(int capacity) {
+        char[] compacted = new char[capacity];
+        int size = 0;
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = ROOT;
+        while (top > 0) {
+            int p = stack[--top];
+            System.arraycopy(labels, labelOffset[p], compacted, size, labelLength[p]);
+            labelOffset[p] = size;
+            size += labelLength[p];
+            for (int c = firstChild[p]; c != NIL; c = nextSibling[c]) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, top * 2);
+                }
+                stack[top++] = c;
+            }
+        }
+        labels = compacted;
+        labelSize = size;
+    }
+
+    public static void main(String[] args) {
+        RadixTrie trie = new RadixTrie();
+        trie.insert("hello".toCharArray());
+        trie.insert("hell".toCharArray());
+        trie.insert("hel".toCharArray());
+        trie.insert("hellword".toCharArray());
+        trie.insert("数据结构".toCharArray());
+        trie.insert("数据库".toCharArray());
+        System.out.println(trie.autoCompletion("he".toCharArray()));
+        System.out.println(trie.autoCompletion("数据".toCharArray()));
+        trie.remove("hell".toCharArray());
+        System.out.println(trie.find("hell".toCharArray()) + " " + trie.find("hello".toCharArray())
+                + " nodes=" + trie.nodeCount() + " bytes=" + trie.memoryBytes());
+    }
+}
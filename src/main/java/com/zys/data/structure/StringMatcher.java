@@ -0,0 +1,109 @@
+package com.zys.data.structure;
+
+/**
+ * 预编译的单模式串匹配器
+ * <p>
+ * 模式串在创建匹配器时预处理一次，之后可以对任意多个主串重复匹配，实现类都是不可变的，多个线程可以共用。
+ * {@link #compile(char[])} 根据模式串的长度和字符种类自动选择合适的算法。
+ *
+ * @author: zys
+ * @date: 2026/10/20 14:00
+ */
+public interface StringMatcher extends TextSearcher {
+
+    /**
+     * @return 模式串长度
+     */
+    int length();
+
+    /**
+     * 在 text[off, off + len) 中查找第一个匹配位置
+     *
+     * @param text 主串
+     * @param off  起始下标
+     * @param len  长度
+     * @return 第一个匹配的起始下标（相对于 off），没有时返回 -1
+     */
+    int indexOf(char[] text, int off, int len);
+
+    /**
+     * 查找第一个匹配位置
+     *
+     * @param text 主串
+     * @return 第一个匹配的起始下标，没有时返回 -1
+     */
+    default int indexOf(char[] text) {
+        return indexOf(text, 0, text.length);
+    }
+
+    /**
+     * 查找所有匹配位置（包括互相重叠的），依次写入 out
+     * 默认实现每找到一个匹配就从下一个位置重新查找，实现类可以覆盖成更快的版本，覆盖时 {@link #search} 也要一起覆盖
+     *
+     * @param text 主串
+     * @param off  起始下标
+     * @param len  长度
+     * @param out  结果数组，存放匹配的起始下标（相对于 off），写满之后继续计数但不再写入
+     * @return 匹配总数
+     */
+    default int findAll(char[] text, int off, int len, int[] out) {
+        return restartScan(text, off, len, out, null);
+    }
+
+    /**
+     * 依次回调所有匹配位置，模式串编号固定为 0
+     * 默认实现和 {@link #findAll} 一样每找到一个匹配就重新查找
+     */
+    @Override
+    default int search(char[] text, int off, int len, MatchListener listener) {
+        return restartScan(text, off, len, null, listener);
+    }
+
+    /**
+     * findAll 和 search 共用的循环：listener 不为 null 时回调 listener，否则写入 out
+     */
+    private int restartScan(char[] text, int off, int len, int[] out, MatchListener listener) {
+        int m = length();
+        int count = 0;
+        int from = 0;
+        int found;
+        while (from < len && (found = indexOf(text, off + from, len - from)) >= 0) {
+            if (listener != null) {
+                listener.onMatch(0, from + found, m);
+            } else if (count < out.length) {
+                out[count] = from + found;
+            }
+            count++;
+            from += found + 1;
+        }
+        return count;
+    }
+
+    /**
+     * 根据模式串自动选择算法：
+     * 1. 单个字符用 {@link KmpMatcher}，它在状态为 0 时只做首字符扫描；
+     * 2. 2~4 个字符时，坏字符规则能跳过的距离很小，用 {@link FirstLastMatcher} 批量过滤首尾字符，
+     * 耗时基本不受首字符在主串中出现频率的影响；
+     * 3. 字符种类很少（比如 DNA 序列、二进制串）并且模式串较长时，坏字符经常出现在模式串中，跳得很近，
+     * 用同时有好后缀规则的 {@link BmMatcher}；
+     * 4. 其余情况，模式串不长时用 {@link SundayMatcher}（看窗口后面的一个字符，最多跳 m + 1），
+     * 长模式串用 {@link HorspoolMatcher}（内循环只比较最后一个字符，开销最小）。
+     *
+     * @param pattern 模式串，不能为空
+     * @return 匹配器
+     */
+    static StringMatcher compile(char[] pattern) {
+        int m = pattern.length;
+        if (m == 1) {
+            return new KmpMatcher(pattern);
+        }
+        if (m <= 4) {
+            return new FirstLastMatcher(pattern);
+        }
+        int distinct = (int) new String(pattern).chars().distinct().count();
+        if (distinct <= 4 && m >= 8) {
+            return new BmMatcher(pattern);
+        }
+        return m <= 16 ? new SundayMatcher(pattern) : new HorspoolMatcher(pattern);
+    }
+}
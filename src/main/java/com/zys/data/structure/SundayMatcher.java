@@ -0,0 +1,70 @@
+package com.zys.data.structure;
+
+import com.zys.data.structure.util.CharIntMap;
+
+import java.util.Arrays;
+
+/**
+ * Sunday 算法
+ * <p>
+ * 失配时看窗口后面紧跟的那个字符 text[i + m]：它一定会出现在下一个窗口中，
+ * 所以移动到模式串中这个字符最后出现的位置和它对齐，没有出现过就整体跳过它，移动 m + 1 位。
+ * 比 Horspool 多跳一位，模式串较短时优势明显。移动表用 {@link CharIntMap} 存放，支持完整的 Unicode 字符集。
+ *
+ * @author: zys
+ * @date: 2026/10/20 14:30
+ */
+public class SundayMatcher implements StringMatcher {
+    private final char[] pattern;
+
+    /**
+     * 窗口后面的字符是 c 时移动的位数，不在模式串中时为 m + 1
+     */
+    private final CharIntMap shift;
+
+    /**
+     * @param pattern 模式串，不能为空
+     */
+    public SundayMatcher(char[] pattern) {
+        int m = pattern.length;
+        if (m == 0) {
+            throw new IllegalArgumentException("模式串不能为空");
+        }
+        this.pattern = Arrays.copyOf(pattern, m);
+        this.shift = new CharIntMap(m + 1);
+        for (int i = 0; i < m; i++) {
+            shift.put(pattern[i], m - i);
+        }
+    }
+
+    @Override
+    public int length() {
+        return pattern.length;
+    }
+
+    @Override
+    public int indexOf(char[] text, int off, int len) {
+        char[] pattern = this.pattern;
+        int m = pattern.length;
+        char first = pattern[0];
+        int last = off + len - m;
+        int i = off;
+        while (i <= last) {
+            if (text[i] == first) {
+                int j = 1;
+                while (j < m && text[i + j] == pattern[j]) {
+                    j++;
+                }
+                if (j == m) {
+                    return i - off;
+                }
+            }
+            if (i == last) {
+                // 窗口后面已经没有字符了
+                break;
+            }
+            i += shift.get(text[i + m]);
+        }
+        return -1;
+    }
+}
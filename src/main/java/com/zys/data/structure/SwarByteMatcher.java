@@ -0,0 +1,130 @@
+package com.zys.data.structure;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * 字节数据的首尾字节过滤子串查找，用 SWAR（SIMD within a register）一次处理 8 个位置
+ * <p>
+ * 把 data[i, i + 8) 和 data[i + m - 1, i + m + 7) 各按 long 读出来，分别和首字节、尾字节广播成的 long 做异或，
+ * 两者按位或之后，某个字节为 0 就说明这个位置首尾字节都相等。
+ * 找出 long 中为 0 的字节用 ~(((x & 0x7F7F...) + 0x7F7F...) | x | 0x7F7F...)：
+ * 低 7 位加上 0x7F 之后，只有低 7 位全为 0 的字节最高位不会进位成 1，再排除最高位本来就是 1 的字节，
+ * 剩下最高位为 1 的就是为 0 的字节。每个字节的加法不会向相邻字节进位，所以结果是精确的，没有误报。
+ * <p>
+ * 按 long 读取用的是 {@link MethodHandles#byteArrayViewVarHandle}，JIT 会编译成一条 8 字节的内存读取指令。
+ *
+ * @author: zys
+ * @date: 2026/10/20 16:20
+ */
+public class SwarByteMatcher {
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long ONES = 0x0101010101010101L;
+
+    private static final long LOWS = 0x7F7F7F7F7F7F7F7FL;
+
+    private final byte[] pattern;
+
+    /**
+     * 首字节广播到 8 个字节
+     */
+    private final long firstBroadcast;
+
+    /**
+     * 尾字节广播到 8 个字节
+     */
+    private final long lastBroadcast;
+
+    /**
+     * @param pattern 模式串，不能为空
+     */
+    public SwarByteMatcher(byte[] pattern) {
+        int m = pattern.length;
+        if (m == 0) {
+            throw new IllegalArgumentException("模式串不能为空");
+        }
+        this.pattern = Arrays.copyOf(pattern, m);
+        this.firstBroadcast = (pattern[0] & 0xFFL) * ONES;
+        this.lastBroadcast = (pattern[m - 1] & 0xFFL) * ONES;
+    }
+
+    /**
+     * @return 模式串长度
+     */
+    public int length() {
+        return pattern.length;
+    }
+
+    /**
+     * 在 data[off, off + len) 中查找第一个匹配位置
+     *
+     * @return 第一个匹配的起始下标（相对于 off），没有时返回 -1
+     */
+    public int indexOf(byte[] data, int off, int len) {
+        int[] out = new int[1];
+        return find(data, off, len, out, true) > 0 ? out[0] : -1;
+    }
+
+    /**
+     * 查找所有匹配位置（包括互相重叠的）
+     *
+     * @param out 结果数组，存放匹配的起始下标（相对于 off），写满之后继续计数但不再写入
+     * @return 匹配总数
+     */
+    public int findAll(byte[] data, int off, int len, int[] out) {
+        return find(data, off, len, out, false);
+    }
+
+    private int find(byte[] data, int off, int len, int[] out, boolean firstOnly) {
+        byte[] pattern = this.pattern;
+        int m = pattern.length;
+        // 窗口起始位置的上界（包含）
+        int end = off + len - m;
+        int count = 0;
+        int i = off;
+        for (; i + 7 <= end; i += 8) {
+            long x = ((long) LONG.get(data, i) ^ firstBroadcast) | ((long) LONG.get(data, i + m - 1) ^ lastBroadcast);
+            long zeros = ~(((x & LOWS) + LOWS) | x | LOWS);
+            while (zeros != 0) {
+                int start = i + (Long.numberOfTrailingZeros(zeros) >>> 3);
+                if (matchesMiddle(data, start)) {
+                    if (count < out.length) {
+                        out[count] = start - off;
+                    }
+                    count++;
+                    if (firstOnly) {
+                        return count;
+                    }
+                }
+                zeros &= zeros - 1;
+            }
+        }
+        byte first = pattern[0];
+        byte last = pattern[m - 1];
+        for (; i <= end; i++) {
+            if (data[i] == first && data[i + m - 1] == last && matchesMiddle(data, i)) {
+                if (count < out.length) {
+                    out[count] = i - off;
+                }
+                count++;
+                if (firstOnly) {
+                    return count;
+                }
+            }
+        }
+        return count;
+    }
+
+    private boolean matchesMiddle(byte[] data, int start) {
+        byte[] pattern = this.pattern;
+        for (int j = 1; j < pattern.length - 1; j++) {
+            if (data[start + j] != pattern[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,120 @@
+package com.zys.data.structure;
+
+import com.zys.data.structure.util.CharIntMap;
+
+/**
+ * 主串的抽样统计信息，供 {@link AdaptiveSearcher} 选择算法
+ * <p>
+ * 只从主串中均匀地抽取若干个窗口统计，不扫描整个主串：
+ * 1. 字符种类数：种类少（DNA、二进制位串）时坏字符规则跳得近；
+ * 2. 每个字符出现的频率：模式串首字符很少出现时，只扫描首字符的算法最快；
+ * 3. 重复度：滞后 1~8 位时 text[i] == text[i - lag] 的比例的最大值，周期性强的主串上按坏字符跳转的算法容易退化。
+ *
+ * @author: zys
+ * @date: 2026/10/20 21:00
+ */
+public class TextProfile {
+    /**
+     * 默认抽样的字符个数
+     */
+    public static final int DEFAULT_SAMPLE_SIZE = 64 * 1024;
+
+    /**
+     * 抽样的窗口个数
+     */
+    private static final int WINDOWS = 16;
+
+    /**
+     * 统计重复度时考察的最大滞后
+     */
+    private static final int MAX_LAG = 8;
+
+    /**
+     * 每个字符在样本中出现的次数
+     */
+    private final CharIntMap counts = new CharIntMap(0);
+
+    private int sampled;
+
+    private int alphabetSize;
+
+    private double repetitiveness;
+
+    private TextProfile() {
+    }
+
+    /**
+     * 用默认的样本大小抽样
+     *
+     * @param text 主串
+     * @return 统计信息
+     */
+    public static TextProfile sample(char[] text) {
+        return sample(text, DEFAULT_SAMPLE_SIZE);
+    }
+
+    /**
+     * @param text       主串
+     * @param sampleSize 抽样的字符个数，主串不够长时统计整个主串
+     * @return 统计信息
+     */
+    public static TextProfile sample(char[] text, int sampleSize) {
+        TextProfile profile = new TextProfile();
+        int[] sameAtLag = new int[MAX_LAG + 1];
+        int[] comparedAtLag = new int[MAX_LAG + 1];
+        int windows = text.length <= sampleSize ? 1 : WINDOWS;
+        int windowSize = Math.min(text.length, sampleSize / windows);
+        for (int w = 0; w < windows; w++) {
+            // 窗口在主串中均匀分布
+            int start = windows == 1 ? 0 : (int) ((long) (text.length - windowSize) * w / (windows - 1));
+            for (int i = start; i < start + windowSize; i++) {
+                char c = text[i];
+                int count = profile.counts.get(c);
+                if (count == 0) {
+                    profile.alphabetSize++;
+                }
+                profile.counts.put(c, count + 1);
+                for (int lag = 1; lag <= MAX_LAG && i - lag >= start; lag++) {
+                    comparedAtLag[lag]++;
+                    if (text[i - lag] == c) {
+                        sameAtLag[lag]++;
+                    }
+                }
+            }
+            profile.sampled += windowSize;
+        }
+        for (int lag = 1; lag <= MAX_LAG; lag++) {
+            if (comparedAtLag[lag] > 0) {
+                profile.repetitiveness = Math.max(profile.repetitiveness, (double) sameAtLag[lag] / comparedAtLag[lag]);
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * @return 样本中的字符种类数
+     */
+    public int alphabetSize() {
+        return alphabetSize;
+    }
+
+    /**
+     * @param c 字符
+     * @return 字符在样本中出现的频率，0 ~ 1
+     */
+    public double frequency(char c) {
+        return sampled == 0 ? 0 : (double) counts.get(c) / sampled;
+    }
+
+    /**
+     * @return 重复度，0 ~ 1，随机的 DNA 序列约为 0.25，aaaa... 或者周期很短的主串接近 1
+     */
+    public double repetitiveness() {
+        return repetitiveness;
+    }
+
+    @Override
+    public String toString() {
+        return "TextProfile{alphabetSize=" + alphabetSize + ", repetitiveness=" + repetitiveness + "}";
+    }
+}
@@ -0,0 +1,36 @@
+package com.zys.data.structure;
+
+/**
+ * 统一的文本查找接口
+ * <p>
+ * 单模式串的匹配器（{@link StringMatcher} 的实现、{@link BM#asMatcher}、{@link KPM#asMatcher}）
+ * 和多模式串的 {@link AC}、{@link AcDfa}、{@link Trie} 都实现这个接口，
+ * 命中统一以 (模式串编号, 起始下标, 长度) 的形式回调，调用方和基准测试可以不关心背后是哪种算法。
+ *
+ * @author: zys
+ * @date: 2026/10/20 19:00
+ */
+public interface TextSearcher {
+
+    /**
+     * 查找 text[off, off + len) 中的所有命中（包括互相重叠的）
+     *
+     * @param text     主串
+     * @param off      起始下标
+     * @param len      长度
+     * @param listener 命中回调，下标相对于 off
+     * @return 命中个数
+     */
+    int search(char[] text, int off, int len, MatchListener listener);
+
+    /**
+     * 查找主串中的所有命中
+     *
+     * @param text     主串
+     * @param listener 命中回调
+     * @return 命中个数
+     */
+    default int search(char[] text, MatchListener listener) {
+        return search(text, 0, text.length, listener);
+    }
+}
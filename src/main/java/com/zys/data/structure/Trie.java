@@ -1,46 +1,140 @@
 package com.zys.data.structure;
 
+import com.zys.data.structure.trie.ChildMap;
+import com.zys.data.structure.trie.ChildMapFactory;
+import com.zys.data.structure.trie.Utf8Keys;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
  * Trie树实现代码
- * 假设字符集是 a-z 26个字母，利用ASCII值来计算下标index
+ * 默认假设字符集是 a-z 26个字母，利用ASCII值来计算下标index；
+ * 也可以通过 {@link ChildMapFactory} 指定子节点的存储方式，支持任意字符集（中文、大小写混合），
+ * 或者把字符按 UTF-8 编码成字节，构造字节级的 Trie 树（也支持二进制 key）。
+ * 指定 {@link CharTransform} 时，插入、查找、自动补全都先对字符做变换（比如忽略大小写），自动补全返回变换后的字符串。
+ * 通过 {@link #insert(char[], long)} 插入带权重（词频、得分）的词之后，可以用 {@link #topK(char[], int)} 查询某个前缀下权重最大的 k 个词，
+ * 每个节点缓存了子树中权重最大的若干个词，查询时间只和前缀长度有关，与共享前缀的词有多少个无关。
+ * {@link #fuzzyFind(char[], int)} 和 {@link #fuzzyAutoCompletion(char[], int)} 按编辑距离做模糊查找（拼写纠错），
+ * 遍历时逐个节点递推 Levenshtein 矩阵的一行，一行中的最小值超过允许的编辑次数时，整棵子树都不可能再满足要求，直接剪掉。
+ * 构建好的 Trie 树可以通过 {@link #writeTo(Path)} 保存成紧凑的二进制文件，再用 {@link MappedTrie} 以内存映射的方式直接查询。
  *
  * @author: zys
  * @date: 2019/6/16 15:01
  */
-public class Trie {
+public class Trie implements TextSearcher {
     /**
      * Trie树的根节点
      */
     private TrieNode root;
 
     /**
-     * 字符集大小
+     * 子节点存储的创建策略
      */
-    private int size;
+    private ChildMapFactory factory;
+
+    /**
+     * 是否是字节级的 Trie 树，是的话每个字符先编码成 UTF-8 字节，每个节点存放一个字节
+     */
+    private boolean byteLevel;
+
+    /**
+     * 字符变换，null 表示不做变换
+     */
+    private CharTransform transform;
+
+    /**
+     * 每个节点缓存的权重最大的词的个数
+     */
+    private int topKCapacity = 10;
+
+    /**
+     * 带权重的词的个数
+     */
+    private int weightedCount;
+
+    /**
+     * 字节级编码时复用的缓冲区，只在插入时使用；查询不修改任何状态，读锁下可以多个线程同时查询
+     */
+    private final int[] encoded = new int[Utf8Keys.MAX_BYTES_PER_CHAR];
 
     class TrieNode {
+        /**
+         * 存放字符，字节级的 Trie 树存放的是字节（0~255）
+         */
         private char data;
         /**
-         * 用对象数组的方式代替指针
+         * 子节点，叶子节点为 null，第一次插入子节点时才创建
          */
-        private TrieNode[] children;
+        private ChildMap<TrieNode> children;
         /**
          * 判断是否是结尾字符
          */
         private boolean isEndingChar = false;
+        /**
+         * 以这个节点结尾的带权重的词，没有时为 null
+         */
+        private Completion completion;
+        /**
+         * 子树中（包括自己）权重最大的若干个词，按权重降序排列，没有时为 null
+         */
+        private Completion[] top;
 
-        TrieNode(char data, TrieNode[] children) {
+        TrieNode(char data) {
             this.data = data;
-            this.children = children;
+        }
+
+        TrieNode child(int key) {
+            return children == null ? null : children.get(key);
+        }
+
+        TrieNode addChild(int key) {
+            TrieNode child = child(key);
+            if (child == null) {
+                child = new TrieNode((char) key);
+                if (children == null) {
+                    children = factory.create();
+                }
+                children = children.put(key, child);
+            }
+            return child;
         }
 
     }
 
     public Trie(int size) {
-        this.size = size;
-        this.root = new TrieNode('/', new TrieNode[size]);
+        this(ChildMapFactory.dense('a', size));
+    }
+
+    /**
+     * @param factory 子节点存储的创建策略
+     */
+    public Trie(ChildMapFactory factory) {
+        this(factory, false);
+    }
+
+    /**
+     * @param factory   子节点存储的创建策略
+     * @param byteLevel 是否按 UTF-8 字节构造 Trie 树，字节级的字符集只有 256，分叉数小，适合字符种类很多的 key
+     */
+    public Trie(ChildMapFactory factory, boolean byteLevel) {
+        this(factory, byteLevel, null);
+    }
+
+    /**
+     * @param factory   子节点存储的创建策略
+     * @param byteLevel 是否按 UTF-8 字节构造 Trie 树
+     * @param transform 字符变换，null 表示不做变换
+     */
+    public Trie(ChildMapFactory factory, boolean byteLevel, CharTransform transform) {
+        this.factory = factory;
+        this.byteLevel = byteLevel;
+        this.transform = transform;
+        this.root = new TrieNode('/');
     }
 
     /**
@@ -50,17 +144,207 @@ public class Trie {
      */
     public void insert(char[] chars) {
         TrieNode p = root;
-        for (char c : chars) {
-            int index = c - 'a';
-            if (p.children[index] == null) {
-                p.children[index] = new TrieNode(c, new TrieNode[size]);
+        for (char raw : chars) {
+            int c = normalize(raw);
+            if (c == CharTransform.SKIP) {
+                continue;
+            }
+            if (byteLevel) {
+                int n = Utf8Keys.encode((char) c, encoded);
+                for (int i = 0; i < n; i++) {
+                    p = p.addChild(encoded[i]);
+                }
+            } else {
+                p = p.addChild(c);
             }
-            p = p.children[index];
         }
         // 结尾字符设置标识符
         p.isEndingChar = true;
     }
 
+    /**
+     * 插入带权重的词，词已经存在时更新权重
+     * 沿路径更新每个节点缓存的 top 列表：权重变大（或新词）时直接插入列表，
+     * 权重变小时这个词可能要被子树中别的词替换掉，从下往上用子节点的列表重新合并
+     *
+     * @param chars  词
+     * @param weight 权重（词频、得分），越大越靠前
+     */
+    public void insert(char[] chars, long weight) {
+        TrieNode[] path = new TrieNode[16];
+        int depth = 0;
+        TrieNode p = root;
+        path[depth++] = p;
+        for (char raw : chars) {
+            int c = normalize(raw);
+            if (c == CharTransform.SKIP) {
+                continue;
+            }
+            int n = 1;
+            if (byteLevel) {
+                n = Utf8Keys.encode((char) c, encoded);
+            } else {
+                encoded[0] = c;
+            }
+            for (int i = 0; i < n; i++) {
+                p = p.addChild(encoded[i]);
+                if (depth == path.length) {
+                    path = Arrays.copyOf(path, depth * 2);
+                }
+                path[depth++] = p;
+            }
+        }
+        p.isEndingChar = true;
+        Completion old = p.completion;
+        Completion updated = new Completion(new String(chars), weight);
+        p.completion = updated;
+        if (old == null) {
+            weightedCount++;
+        }
+        if (old == null || weight >= old.weight) {
+            for (int i = depth - 1; i >= 0; i--) {
+                offer(path[i], old, updated);
+            }
+        } else {
+            for (int i = depth - 1; i >= 0; i--) {
+                rebuildTop(path[i]);
+            }
+        }
+    }
+
+    /**
+     * 查询以 prefix 开头、权重最大的 k 个词
+     * k 不超过 {@link #setTopKCapacity(int) 缓存大小} 时直接返回前缀节点缓存的列表，
+     * 否则遍历前缀节点的子树，用大小为 k 的小顶堆选出权重最大的 k 个词
+     *
+     * @param prefix 前缀
+     * @param k      个数
+     * @return 按权重降序排列的词，只包含带权重插入的词
+     */
+    public List<Completion> topK(char[] prefix, int k) {
+        TrieNode p = walk(prefix);
+        if (p == null || p.top == null || k <= 0) {
+            return Collections.emptyList();
+        }
+        if (k <= topKCapacity) {
+            return Arrays.asList(Arrays.copyOf(p.top, Math.min(k, p.top.length)));
+        }
+        // k 只是上限，子树里的词可能很少，初始容量不能直接用 k
+        PriorityQueue<Completion> heap = new PriorityQueue<>(Math.min(k, 256), Completion.ORDER.reversed());
+        Deque<TrieNode> stack = new ArrayDeque<>();
+        stack.push(p);
+        while (!stack.isEmpty()) {
+            TrieNode node = stack.pop();
+            if (node.completion != null) {
+                heap.offer(node.completion);
+                if (heap.size() > k) {
+                    heap.poll();
+                }
+            }
+            ChildMap<TrieNode> children = node.children;
+            if (children != null) {
+                for (int i = 0; i < children.slots(); i++) {
+                    TrieNode child = children.valueAt(i);
+                    if (child != null && child.top != null) {
+                        stack.push(child);
+                    }
+                }
+            }
+        }
+        List<Completion> result = new ArrayList<>(heap);
+        result.sort(Completion.ORDER);
+        return result;
+    }
+
+    /**
+     * 设置每个节点缓存的词的个数，缓存越大，{@link #topK(char[], int)} 能直接返回的 k 越大，占用的内存也越多
+     *
+     * @param capacity 缓存大小
+     */
+    public void setTopKCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity 必须大于 0");
+        }
+        if (weightedCount > 0) {
+            throw new IllegalStateException("已经插入了带权重的词，不能再修改缓存大小");
+        }
+        this.topKCapacity = capacity;
+    }
+
+    /**
+     * 用 updated 替换 node 的 top 列表中的 old（old 可以为 null），updated 的权重不小于 old
+     */
+    private void offer(TrieNode node, Completion old, Completion updated) {
+        Completion[] top = node.top;
+        if (top == null) {
+            node.top = new Completion[]{updated};
+            return;
+        }
+        int size = top.length;
+        int at = -1;
+        if (old != null) {
+            for (int i = 0; i < size; i++) {
+                if (top[i] == old) {
+                    at = i;
+                    break;
+                }
+            }
+        }
+        if (at < 0) {
+            if (size == topKCapacity && Completion.ORDER.compare(updated, top[size - 1]) >= 0) {
+                // 比列表中最小的还小，列表不变
+                return;
+            }
+            if (size < topKCapacity) {
+                top = Arrays.copyOf(top, size + 1);
+            }
+            at = top.length - 1;
+        }
+        // 权重变大，只可能往前移动
+        while (at > 0 && Completion.ORDER.compare(updated, top[at - 1]) < 0) {
+            top[at] = top[at - 1];
+            at--;
+        }
+        top[at] = updated;
+        node.top = top;
+    }
+
+    /**
+     * 用节点自己的词和子节点的 top 列表重新合并出 node 的 top 列表
+     */
+    private void rebuildTop(TrieNode node) {
+        List<Completion> candidates = new ArrayList<>();
+        if (node.completion != null) {
+            candidates.add(node.completion);
+        }
+        ChildMap<TrieNode> children = node.children;
+        if (children != null) {
+            for (int i = 0; i < children.slots(); i++) {
+                TrieNode child = children.valueAt(i);
+                if (child != null && child.top != null) {
+                    Collections.addAll(candidates, child.top);
+                }
+            }
+        }
+        candidates.sort(Completion.ORDER);
+        int size = Math.min(candidates.size(), topKCapacity);
+        node.top = size == 0 ? null : candidates.subList(0, size).toArray(new Completion[0]);
+    }
+
+    /**
+     * 往字节级的 Trie 树插入二进制 key
+     *
+     * @param bytes 二进制 key
+     */
+    public void insert(byte[] bytes) {
+        checkByteLevel();
+        TrieNode p = root;
+        for (byte b : bytes) {
+            p = p.addChild(b & 0xFF);
+        }
+        p.isEndingChar = true;
+    }
+
 
     /**
      * 查找有无匹配的字符串
@@ -69,18 +353,158 @@ public class Trie {
      * @return
      */
     public boolean find(char[] pattern) {
+        TrieNode p = walk(pattern);
+        return p != null && p.isEndingChar;
+    }
+
+    /**
+     * 在字节级的 Trie 树中查找二进制 key
+     *
+     * @param bytes 二进制 key
+     * @return 是否存在
+     */
+    public boolean find(byte[] bytes) {
+        checkByteLevel();
         TrieNode p = root;
-        for (char c : pattern) {
-            int index = c - 'a';
-            if (p.children[index] == null) {
-                // 不存在
+        for (byte b : bytes) {
+            p = p.child(b & 0xFF);
+            if (p == null) {
                 return false;
             }
-            p = p.children[index];
         }
         return p.isEndingChar;
     }
 
+    /**
+     * 沿着字符串往下走
+     *
+     * @param pattern 字符串
+     * @return 字符串最后一个字符对应的节点，不存在时返回 null
+     */
+    private TrieNode walk(char[] pattern) {
+        TrieNode p = root;
+        for (char raw : pattern) {
+            int c = normalize(raw);
+            if (c == CharTransform.SKIP) {
+                continue;
+            }
+            p = next(p, (char) c);
+            if (p == null) {
+                // 不存在
+                return null;
+            }
+        }
+        return p;
+    }
+
+    /**
+     * 从节点 p 读入字符 c 之后到达的子节点，不存在时返回 null
+     * 字节级的 Trie 树把字符现场编码成 UTF-8 字节（与 {@link Utf8Keys#encode} 一致），不使用共享的缓冲区
+     */
+    private TrieNode next(TrieNode p, char c) {
+        if (!byteLevel || c < 0x80) {
+            return p.child(c);
+        }
+        if (c < 0x800) {
+            p = p.child(0xC0 | (c >> 6));
+            return p == null ? null : p.child(0x80 | (c & 0x3F));
+        }
+        p = p.child(0xE0 | (c >> 12));
+        if (p != null) {
+            p = p.child(0x80 | ((c >> 6) & 0x3F));
+        }
+        return p == null ? null : p.child(0x80 | (c & 0x3F));
+    }
+
+    /**
+     * 在主串中查找所有出现的词：从每个位置出发沿着 Trie 树往下走，经过的结尾节点就是一个命中
+     * 最坏 O(n * 最长的词)，多模式串匹配的朴素做法，主要用来和 {@link AC} 对比；
+     * Trie 树不记录词的编号，模式串编号固定为 0
+     */
+    @Override
+    public int search(char[] text, int off, int len, MatchListener listener) {
+        int count = 0;
+        int end = off + len;
+        for (int i = off; i < end; i++) {
+            if (normalize(text[i]) == CharTransform.SKIP) {
+                continue;
+            }
+            TrieNode p = root;
+            for (int j = i; j < end && p != null; j++) {
+                int c = normalize(text[j]);
+                if (c == CharTransform.SKIP) {
+                    continue;
+                }
+                p = next(p, (char) c);
+                if (p != null && p.isEndingChar) {
+                    listener.onMatch(0, i - off, j - i + 1);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 保存成二进制文件，格式见 {@link MappedTrie}
+     * 按 BFS 顺序给节点编号，同一个节点的子节点编号连续，并按字符排序，查询时可以二分
+     *
+     * @param file 文件路径
+     * @throws IOException 写入失败
+     */
+    public void writeTo(Path file) throws IOException {
+        List<TrieNode> nodes = new ArrayList<>();
+        // firstChild[i] 是第 i 个节点的第一个子节点的编号
+        List<Integer> firstChild = new ArrayList<>();
+        nodes.add(root);
+        for (int i = 0; i < nodes.size(); i++) {
+            TrieNode p = nodes.get(i);
+            firstChild.add(nodes.size());
+            ChildMap<TrieNode> children = p.children;
+            if (children != null) {
+                List<TrieNode> sorted = new ArrayList<>(children.size());
+                for (int j = 0; j < children.slots(); j++) {
+                    if (children.valueAt(j) != null) {
+                        sorted.add(children.valueAt(j));
+                    }
+                }
+                sorted.sort(Comparator.comparingInt(node -> node.data));
+                nodes.addAll(sorted);
+            }
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MappedTrie.MAGIC);
+            out.writeInt(MappedTrie.VERSION);
+            out.writeInt((byteLevel ? MappedTrie.FLAG_BYTE_LEVEL : 0) | (transform != null ? MappedTrie.FLAG_TRANSFORMED : 0));
+            out.writeInt(nodes.size());
+            for (int i = 0; i < MappedTrie.HEADER_INTS - 4; i++) {
+                out.writeInt(0);
+            }
+            for (int i = 0; i < nodes.size(); i++) {
+                TrieNode p = nodes.get(i);
+                int childCount = p.children == null ? 0 : p.children.size();
+                out.writeInt(firstChild.get(i));
+                out.writeInt(childCount << 1 | (p.isEndingChar ? 1 : 0));
+            }
+            for (TrieNode p : nodes) {
+                out.writeChar(p.data);
+            }
+        }
+    }
+
+    /**
+     * @return 变换后的字符，或者 {@link CharTransform#SKIP}
+     */
+    private int normalize(char c) {
+        return transform == null ? c : transform.apply(c);
+    }
+
+    private void checkByteLevel() {
+        if (!byteLevel) {
+            throw new IllegalStateException("只有字节级的 Trie 树支持二进制 key");
+        }
+    }
+
     /**
      * 自动补全
      *
@@ -89,38 +513,311 @@ public class Trie {
      */
     public List<String> autoCompletion(char[] pattern) {
         List<String> result = null;
-        TrieNode p = root;
-        for (char c : pattern) {
-            int index = c - 'a';
-            if (p.children[index] == null && !p.isEndingChar) {
-                return null;
-            }
-            p = p.children[index];
+        TrieNode p = walk(pattern);
+        if (p == null) {
+            return null;
         }
         if (!p.isEndingChar) {
-            StringBuilder prev = new StringBuilder();
-            for (char c : pattern) {
-                prev.append(c);
+            KeyPath prev = new KeyPath();
+            int[] encoded = byteLevel ? new int[Utf8Keys.MAX_BYTES_PER_CHAR] : null;
+            for (char raw : pattern) {
+                int c = normalize(raw);
+                if (c == CharTransform.SKIP) {
+                    continue;
+                }
+                if (byteLevel) {
+                    int n = Utf8Keys.encode((char) c, encoded);
+                    for (int i = 0; i < n; i++) {
+                        prev.push(encoded[i]);
+                    }
+                } else {
+                    prev.push(c);
+                }
             }
             result = new ArrayList<>();
-            getAutoCompletions(result, p, prev.toString());
+            getAutoCompletions(result, p, prev);
         }
         return result;
     }
 
-    private void getAutoCompletions(List<String> list, TrieNode trieNode, String prev) {
-        if (trieNode != null) {
-            if (trieNode.isEndingChar) {
-                list.add(prev);
+    private void getAutoCompletions(List<String> list, TrieNode trieNode, KeyPath prev) {
+        if (trieNode.isEndingChar) {
+            list.add(prev.toString());
+        }
+        ChildMap<TrieNode> children = trieNode.children;
+        if (children != null) {
+            for (int i = 0; i < children.slots(); i++) {
+                TrieNode child = children.valueAt(i);
+                if (child != null) {
+                    // 回溯：递归返回后把这个字符弹出，兄弟节点不会带上它
+                    prev.push(child.data);
+                    getAutoCompletions(list, child, prev);
+                    prev.pop();
+                }
+            }
+        }
+    }
+
+    /**
+     * 模糊查找：与 pattern 的编辑距离（插入、删除、替换各算一次）不超过 maxEdits 的所有词
+     *
+     * @param pattern  要查找的词
+     * @param maxEdits 允许的最大编辑次数
+     * @return 满足条件的词，字节级的 Trie 树按 UTF-8 字节序，其他按子节点的遍历顺序
+     */
+    public List<String> fuzzyFind(char[] pattern, int maxEdits) {
+        return new FuzzySearch(pattern, maxEdits, false).run();
+    }
+
+    /**
+     * 模糊自动补全：存在某个前缀与 prefix 的编辑距离不超过 maxEdits 的所有词，比如 "helo" 可以补全出 "hello"、"help"
+     *
+     * @param prefix   输入的前缀
+     * @param maxEdits 允许的最大编辑次数
+     * @return 满足条件的词
+     */
+    public List<String> fuzzyAutoCompletion(char[] prefix, int maxEdits) {
+        return new FuzzySearch(prefix, maxEdits, true).run();
+    }
+
+    /**
+     * 一次模糊查找
+     * <p>
+     * rows[d] 是走到深度 d（按字符计）的节点时 Levenshtein 矩阵的最后一行：rows[d][j] 是路径上的 d 个字符与 pattern 前 j 个字符的编辑距离，
+     * 每往下走一个字符只需要用上一行递推出新的一行。|d - j| 大于 maxEdits 的格子不可能不超过 maxEdits，
+     * 所以每行只计算 [d - maxEdits, d + maxEdits] 这一段（带状），每步 O(maxEdits)，段外的值都看作 maxEdits + 1，
+     * 段的两端外侧各写一个 maxEdits + 1 作为哨兵，下一行递推时读到的段外的值就是它。
+     * 字节级的 Trie 树先沿着 UTF-8 的后续字节往下走，凑齐一个完整的字符再递推。
+     */
+    private class FuzzySearch {
+        private final char[] pattern;
+
+        private final int maxEdits;
+
+        /**
+         * 是否是模糊自动补全
+         */
+        private final boolean prefix;
+
+        private final KeyPath path = new KeyPath();
+
+        private final List<String> result = new ArrayList<>();
+
+        private int[][] rows = new int[16][];
+
+        FuzzySearch(char[] raw, int maxEdits, boolean prefix) {
+            if (maxEdits < 0) {
+                throw new IllegalArgumentException("maxEdits 不能小于 0");
+            }
+            char[] normalized = new char[raw.length];
+            int m = 0;
+            for (char c : raw) {
+                int t = normalize(c);
+                if (t != CharTransform.SKIP) {
+                    normalized[m++] = (char) t;
+                }
+            }
+            this.pattern = Arrays.copyOf(normalized, m);
+            this.maxEdits = maxEdits;
+            this.prefix = prefix;
+        }
+
+        List<String> run() {
+            int m = pattern.length;
+            int[] first = row(0);
+            int hi = Math.min(m, maxEdits);
+            for (int j = 0; j <= hi; j++) {
+                first[j] = j;
+            }
+            if (hi < m) {
+                first[hi + 1] = maxEdits + 1;
+            }
+            visit(root, 0);
+            return result;
+        }
+
+        /**
+         * 处理走完一个完整字符之后到达的节点，rows[depth] 已经算好
+         */
+        private void visit(TrieNode node, int depth) {
+            int[] row = rows[depth];
+            int m = pattern.length;
+            int lo = Math.max(0, depth - maxEdits);
+            int hi = Math.min(m, depth + maxEdits);
+            if (lo > hi) {
+                // 路径已经比 pattern 长了 maxEdits 以上
+                return;
+            }
+            // row[m] 在段内才有效
+            boolean matched = hi == m && row[m] <= maxEdits;
+            if (prefix && matched) {
+                // 当前路径已经是一个满足条件的前缀，子树中的词都满足
+                getAutoCompletions(result, node, path);
+                return;
+            }
+            if (!prefix && matched && node.isEndingChar) {
+                result.add(path.toString());
+            }
+            int min = row[lo];
+            for (int j = lo + 1; j <= hi; j++) {
+                min = Math.min(min, row[j]);
+            }
+            if (min > maxEdits || node.children == null) {
+                // 再往下走编辑距离只会更大，剪掉整棵子树
+                return;
             }
-            if (trieNode.children != null) {
-                for (TrieNode child : trieNode.children) {
-                    if (child != null) {
-                        prev += child.data;
-                        getAutoCompletions(list, child, prev);
+            ChildMap<TrieNode> children = node.children;
+            for (int i = 0; i < children.slots(); i++) {
+                TrieNode child = children.valueAt(i);
+                if (child == null) {
+                    continue;
+                }
+                path.push(child.data);
+                if (!byteLevel) {
+                    step(child, child.data, depth);
+                } else {
+                    int b = child.data;
+                    if ((b & 0xE0) == 0xC0) {
+                        continueBytes(child, b & 0x1F, 1, depth);
+                    } else if ((b & 0xF0) == 0xE0) {
+                        continueBytes(child, b & 0x0F, 2, depth);
+                    } else {
+                        // ASCII，或者直接插入的二进制 key 中的字节，按单个字符处理
+                        step(child, (char) b, depth);
                     }
                 }
+                path.pop();
+            }
+        }
+
+        /**
+         * 字节级的 Trie 树：沿着 UTF-8 的后续字节往下走，凑齐一个字符
+         */
+        private void continueBytes(TrieNode node, int code, int remaining, int depth) {
+            if (remaining == 0) {
+                step(node, (char) code, depth);
+                return;
+            }
+            ChildMap<TrieNode> children = node.children;
+            if (children == null) {
+                return;
+            }
+            for (int i = 0; i < children.slots(); i++) {
+                TrieNode child = children.valueAt(i);
+                if (child != null) {
+                    path.push(child.data);
+                    continueBytes(child, code << 6 | (child.data & 0x3F), remaining - 1, depth);
+                    path.pop();
+                }
+            }
+        }
+
+        /**
+         * 读入字符 c 到达 node，用 rows[depth] 递推出 rows[depth + 1]
+         */
+        private void step(TrieNode node, char c, int depth) {
+            int[] prev = rows[depth];
+            int d = depth + 1;
+            int[] next = row(d);
+            int m = pattern.length;
+            int cap = maxEdits + 1;
+            int lo = Math.max(1, d - maxEdits);
+            int hi = Math.min(m, d + maxEdits);
+            next[0] = Math.min(d, cap);
+            if (lo > 1) {
+                next[lo - 1] = cap;
+            }
+            for (int j = lo; j <= hi; j++) {
+                int replace = prev[j - 1] + (pattern[j - 1] == c ? 0 : 1);
+                next[j] = Math.min(cap, Math.min(replace, Math.min(prev[j] + 1, next[j - 1] + 1)));
+            }
+            if (hi < m) {
+                next[hi + 1] = cap;
+            }
+            visit(node, d);
+        }
+
+        /**
+         * 深度 depth 的行，按需分配，同一深度的行在兄弟节点之间复用
+         */
+        private int[] row(int depth) {
+            if (depth == rows.length) {
+                rows = Arrays.copyOf(rows, depth * 2);
+            }
+            if (rows[depth] == null) {
+                rows[depth] = new int[pattern.length + 1];
+            }
+            return rows[depth];
+        }
+    }
+
+    /**
+     * 带权重的词
+     */
+    public static final class Completion {
+        /**
+         * 权重降序，权重相同时按词的字典序
+         */
+        static final Comparator<Completion> ORDER = (a, b) -> {
+            int cmp = Long.compare(b.weight, a.weight);
+            return cmp != 0 ? cmp : a.word.compareTo(b.word);
+        };
+
+        private final String word;
+
+        private final long weight;
+
+        Completion(String word, long weight) {
+            this.word = word;
+            this.weight = weight;
+        }
+
+        /**
+         * @return 插入时的原始词
+         */
+        public String word() {
+            return word;
+        }
+
+        public long weight() {
+            return weight;
+        }
+
+        @Override
+        public String toString() {
+            return word + "(" + weight + ")";
+        }
+    }
+
+    /**
+     * 从根节点到当前节点的路径，字节级的 Trie 树在输出时再解码
+     */
+    private class KeyPath {
+        private int[] keys = new int[16];
+
+        private int length;
+
+        void push(int key) {
+            if (length == keys.length) {
+                keys = Arrays.copyOf(keys, length * 2);
+            }
+            keys[length++] = key;
+        }
+
+        void pop() {
+            length--;
+        }
+
+        @Override
+        public String toString() {
+            if (byteLevel) {
+                return Utf8Keys.decode(keys, length);
             }
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) keys[i];
+            }
+            return new String(chars);
         }
     }
 
@@ -132,5 +829,25 @@ public class Trie {
 //        trie.insert("he".toCharArray());
         trie.insert("hellword".toCharArray());
         trie.autoCompletion("he".toCharArray()).forEach(System.out::println);
+
+        Trie unicode = new Trie(ChildMapFactory.sorted(), true);
+        unicode.insert("数据结构".toCharArray());
+        unicode.insert("数据库".toCharArray());
+        unicode.insert("Data".toCharArray());
+        unicode.autoCompletion("数据".toCharArray()).forEach(System.out::println);
+
+        Trie folded = new Trie(ChildMapFactory.hash(), false,
+                CharTransform.unicodeCaseFold().andThen(CharTransform.fullWidthToHalfWidth()));
+        folded.insert("Java".toCharArray());
+        System.out.println(folded.find("ＪＡＶＡ".toCharArray()));
+
+        Trie ranked = new Trie(ChildMapFactory.hash());
+        ranked.insert("hello".toCharArray(), 50);
+        ranked.insert("help".toCharArray(), 80);
+        ranked.insert("hero".toCharArray(), 30);
+        ranked.insert("heap".toCharArray(), 65);
+        System.out.println(ranked.topK("he".toCharArray(), 3));
+        System.out.println(ranked.fuzzyFind("helo".toCharArray(), 1));
+        System.out.println(ranked.fuzzyAutoCompletion("hrl".toCharArray(), 1));
     }
 }
@@ -0,0 +1,70 @@
+package com.zys.data.structure.heap;
+
+/**
+ * 线程安全的 long 优先级队列（大顶），多个线程可以同时插入和删除最大值
+ * <p>
+ * 两种实现：
+ * 1. {@link #relaxed()}：{@link MultiQueue}，由多个带锁的小堆组成，removeMax 返回的是“接近最大”的元素，
+ * 线程之间几乎不竞争，吞吐量随线程数近似线性增长，适合任务分发这种不要求严格顺序的场景；
+ * 2. {@link #strict()}：{@link SkipListLongPriorityQueue}，基于无锁跳表，removeMax 一定返回当前最大的元素，
+ * 优先级相同时先进先出，但所有删除都集中在跳表头部，线程多了之后吞吐量上不去。
+ * <p>
+ * 为了不装箱，队列为空时 removeMax 返回 {@link #EMPTY}，所以 Long.MIN_VALUE 不能作为元素插入。
+ *
+ * @author: zys
+ * @date: 2026/10/21 19:00
+ */
+public interface ConcurrentLongPriorityQueue {
+    /**
+     * 队列为空时 removeMax 的返回值
+     */
+    long EMPTY = Long.MIN_VALUE;
+
+    /**
+     * 插入元素
+     *
+     * @param value 插入的元素，不能是 {@link #EMPTY}
+     * @throws IllegalArgumentException value 是 {@link #EMPTY}
+     */
+    void add(long value);
+
+    /**
+     * 删除并返回最大的元素（宽松实现中是接近最大的元素）
+     *
+     * @return 删除的元素，队列为空时返回 {@link #EMPTY}
+     */
+    long removeMax();
+
+    /**
+     * @return 元素个数，有并发修改时只是一个近似值
+     */
+    long size();
+
+    /**
+     * 宽松顺序，队列个数是 CPU 核数的 2 倍
+     *
+     * @return 优先级队列
+     */
+    static ConcurrentLongPriorityQueue relaxed() {
+        return new MultiQueue(2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 宽松顺序
+     *
+     * @param queues 内部小堆的个数，越多竞争越少，但 removeMax 返回的元素离真正的最大值越远
+     * @return 优先级队列
+     */
+    static ConcurrentLongPriorityQueue relaxed(int queues) {
+        return new MultiQueue(queues);
+    }
+
+    /**
+     * 严格顺序
+     *
+     * @return 优先级队列
+     */
+    static ConcurrentLongPriorityQueue strict() {
+        return new SkipListLongPriorityQueue();
+    }
+}
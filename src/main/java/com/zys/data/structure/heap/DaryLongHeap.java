@@ -0,0 +1,267 @@
+package com.zys.data.structure.heap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * d 叉 long 堆，d = 2、4、8，适合元素很多、内存访问延迟是瓶颈的场景（定时器溢出队列等）
+ * <p>
+ * 二叉堆每往下一层，访问的子节点就落在另一个缓存行上，百万级以上的堆几乎每层都是一次缓存未命中。
+ * d 叉堆的层数是 log_d(n)，4 叉堆只有二叉堆的一半，8 叉堆只有三分之一；
+ * 代价是从上往下堆化时每层要比较 d 个子节点，但这 d 个子节点是连续存放的，顺序扫描很快。
+ * <p>
+ * 缓存行对齐：逻辑下标 i 的元素存放在数组下标 i + d - 1 处，
+ * 节点 i 的子节点是逻辑下标 d * i + 1 ~ d * i + d，对应数组下标 d * (i + 1) ~ d * (i + 1) + d - 1，
+ * 所以每组兄弟节点都从 d 的整数倍开始。d = 8 时一组兄弟节点正好是 64 字节，相对于数组起始位置和缓存行对齐，
+ * 一次堆化在每层只访问一个缓存行（JVM 不保证数组本身的起始地址按 64 字节对齐，绝对地址上可能跨两个缓存行）。
+ * <p>
+ * 非线程安全。
+ *
+ * @author: zys
+ * @date: 2026/10/21 14:00
+ */
+public class DaryLongHeap {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * true 表示大顶堆，false 表示小顶堆
+     */
+    private final boolean max;
+
+    /**
+     * log2(d)
+     */
+    private final int shift;
+
+    /**
+     * 逻辑下标 0 在数组中的下标，即 d - 1
+     */
+    private final int base;
+
+    private long[] elements;
+
+    private int size;
+
+    private DaryLongHeap(boolean max, int arity, int capacity) {
+        if (arity != 2 && arity != 4 && arity != 8) {
+            throw new IllegalArgumentException("arity 只能是 2、4、8：" + arity);
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity 不能小于 0");
+        }
+        this.max = max;
+        this.shift = Integer.numberOfTrailingZeros(arity);
+        this.base = arity - 1;
+        this.elements = new long[base + Math.max(capacity, 1)];
+    }
+
+    /**
+     * @param arity 每个节点的子节点个数，2、4、8
+     * @return 大顶堆，堆顶是最大的元素
+     */
+    public static DaryLongHeap maxHeap(int arity) {
+        return new DaryLongHeap(true, arity, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param arity    每个节点的子节点个数，2、4、8
+     * @param capacity 初始容量，超过之后自动扩容
+     * @return 大顶堆，堆顶是最大的元素
+     */
+    public static DaryLongHeap maxHeap(int arity, int capacity) {
+        return new DaryLongHeap(true, arity, capacity);
+    }
+
+    /**
+     * @param arity 每个节点的子节点个数，2、4、8
+     * @return 小顶堆，堆顶是最小的元素
+     */
+    public static DaryLongHeap minHeap(int arity) {
+        return new DaryLongHeap(false, arity, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param arity    每个节点的子节点个数，2、4、8
+     * @param capacity 初始容量，超过之后自动扩容
+     * @return 小顶堆，堆顶是最小的元素
+     */
+    public static DaryLongHeap minHeap(int arity, int capacity) {
+        return new DaryLongHeap(false, arity, capacity);
+    }
+
+    /**
+     * @return 每个节点的子节点个数
+     */
+    public int arity() {
+        return 1 << shift;
+    }
+
+    /**
+     * 插入元素，从下往上堆化
+     *
+     * @param value 插入的元素
+     */
+    public void add(long value) {
+        if (base + size == elements.length) {
+            grow(size + 1);
+        }
+        siftUp(size++, value);
+    }
+
+    /**
+     * 批量插入 values[off, off + len)
+     * 插入的元素相对于堆的大小很少时逐个从下往上堆化，否则追加到末尾之后整体重新建堆
+     */
+    public void addAll(long[] values, int off, int len) {
+        if (base + size + len > elements.length) {
+            grow(size + len);
+        }
+        if ((long) len * (32 - Integer.numberOfLeadingZeros(size + len)) < size + len) {
+            for (int i = 0; i < len; i++) {
+                siftUp(size++, values[off + i]);
+            }
+            return;
+        }
+        System.arraycopy(values, off, elements, base + size, len);
+        size += len;
+        // 最后一个非叶子节点是最后一个元素的父节点
+        for (int i = (size - 2) >> shift; i >= 0; i--) {
+            siftDown(i, elements[base + i]);
+        }
+    }
+
+    /**
+     * @return 堆顶元素，不删除
+     * @throws NoSuchElementException 堆为空
+     */
+    public long peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elements[base];
+    }
+
+    /**
+     * 删除堆顶元素：把最后一个元素放到堆顶，从上往下堆化
+     *
+     * @return 堆顶元素
+     * @throws NoSuchElementException 堆为空
+     */
+    public long poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        long top = elements[base];
+        long last = elements[base + --size];
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return top;
+    }
+
+    /**
+     * 用 value 替换堆顶元素，相当于先 poll 再 add，但只堆化一次
+     *
+     * @param value 新的元素
+     * @return 原来的堆顶元素
+     * @throws NoSuchElementException 堆为空
+     */
+    public long replaceTop(long value) {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        long top = elements[base];
+        siftDown(0, value);
+        return top;
+    }
+
+    /**
+     * @return 元素个数
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 清空堆，保留已经分配的数组
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    private boolean above(long a, long b) {
+        return max ? a > b : a < b;
+    }
+
+    /**
+     * 把 value 放到逻辑下标 i 处，从下往上堆化
+     */
+    private void siftUp(int i, long value) {
+        long[] elements = this.elements;
+        int base = this.base;
+        while (i > 0) {
+            int parent = (i - 1) >> shift;
+            long p = elements[base + parent];
+            if (!above(value, p)) {
+                break;
+            }
+            elements[base + i] = p;
+            i = parent;
+        }
+        elements[base + i] = value;
+    }
+
+    /**
+     * 把 value 放到逻辑下标 i 处，从上往下堆化，每层在连续存放的 d 个子节点中找出应该排在最上面的一个
+     */
+    private void siftDown(int i, long value) {
+        long[] elements = this.elements;
+        int base = this.base;
+        int size = this.size;
+        while (true) {
+            int first = (i << shift) + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + (1 << shift), size);
+            int best = first;
+            long b = elements[base + first];
+            for (int child = first + 1; child < last; child++) {
+                long c = elements[base + child];
+                if (above(c, b)) {
+                    best = child;
+                    b = c;
+                }
+            }
+            if (!above(b, value)) {
+                break;
+            }
+            elements[base + i] = b;
+            i = best;
+        }
+        elements[base + i] = value;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = elements.length - base;
+        capacity = Math.max(capacity + (capacity >> 1), minCapacity);
+        elements = Arrays.copyOf(elements, base + capacity);
+    }
+
+    public static void main(String[] args) {
+        DaryLongHeap timers = DaryLongHeap.minHeap(8);
+        long now = System.currentTimeMillis();
+        for (long delay : new long[]{300, 50, 1000, 10, 700}) {
+            timers.add(now + delay);
+        }
+        StringBuilder sb = new StringBuilder();
+        while (!timers.isEmpty()) {
+            sb.append(timers.poll() - now).append(' ');
+        }
+        System.out.println(sb);
+    }
+}
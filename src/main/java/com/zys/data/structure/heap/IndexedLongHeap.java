@@ -0,0 +1,388 @@
+package com.zys.data.structure.heap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * 带索引的堆：元素是 [0, n) 范围内的 int 编号（比如任务编号），每个编号有一个 long 优先级，
+ * 可以通过编号修改已经在堆中的元素的优先级（decreaseKey），适合调度队列、Dijkstra 之类的场景
+ * <p>
+ * 除了按堆的顺序存放的 ids[] 和 keys[] 两个数组之外，还维护一个索引 pos[id]：编号 id 在堆数组中的下标，不在堆中时为 -1。
+ * 每次移动元素时同步更新 pos，所以按编号找到元素是 O(1) 的，修改优先级之后从这个位置往上或往下堆化即可，是 O(log n) 的。
+ * 编号超过 pos 的长度时 pos 自动扩容，编号应该尽量紧凑。
+ * <p>
+ * 非线程安全。
+ *
+ * @author: zys
+ * @date: 2026/10/21 09:40
+ */
+public class IndexedLongHeap {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final int ABSENT = -1;
+
+    /**
+     * true 表示大顶堆，false 表示小顶堆
+     */
+    private final boolean max;
+
+    /**
+     * 堆数组，ids[i] 是下标 i 处的编号
+     */
+    private int[] ids;
+
+    /**
+     * 堆数组，keys[i] 是下标 i 处的优先级
+     */
+    private long[] keys;
+
+    /**
+     * pos[id]：编号 id 在堆数组中的下标，不在堆中时为 -1
+     */
+    private int[] pos;
+
+    private int size;
+
+    private IndexedLongHeap(boolean max, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity 不能小于 0");
+        }
+        this.max = max;
+        capacity = Math.max(capacity, 1);
+        this.ids = new int[capacity];
+        this.keys = new long[capacity];
+        this.pos = new int[capacity];
+        Arrays.fill(pos, ABSENT);
+    }
+
+    /**
+     * @return 大顶堆，堆顶是优先级最大的编号
+     */
+    public static IndexedLongHeap maxHeap() {
+        return new IndexedLongHeap(true, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity 编号的初始范围，超过之后自动扩容
+     * @return 大顶堆，堆顶是优先级最大的编号
+     */
+    public static IndexedLongHeap maxHeap(int capacity) {
+        return new IndexedLongHeap(true, capacity);
+    }
+
+    /**
+     * @return 小顶堆，堆顶是优先级最小的编号
+     */
+    public static IndexedLongHeap minHeap() {
+        return new IndexedLongHeap(false, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity 编号的初始范围，超过之后自动扩容
+     * @return 小顶堆，堆顶是优先级最小的编号
+     */
+    public static IndexedLongHeap minHeap(int capacity) {
+        return new IndexedLongHeap(false, capacity);
+    }
+
+    /**
+     * 插入编号
+     *
+     * @param id       编号，不能小于 0
+     * @param priority 优先级
+     * @throws IllegalArgumentException 编号小于 0 或者已经在堆中
+     */
+    public void add(int id, long priority) {
+        if (contains(id)) {
+            throw new IllegalArgumentException("编号已经在堆中：" + id);
+        }
+        ensureId(id);
+        if (size == ids.length) {
+            int capacity = size + (size >> 1) + 1;
+            ids = Arrays.copyOf(ids, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+        }
+        siftUp(size++, id, priority);
+    }
+
+    /**
+     * 批量插入，ids[i] 的优先级是 priorities[i]
+     * 插入的元素相对于堆的大小很少时逐个从下往上堆化，否则追加到末尾之后整体重新建堆
+     *
+     * @throws IllegalArgumentException 编号小于 0、重复或者已经在堆中
+     */
+    public void addAll(int[] ids, long[] priorities) {
+        if (ids.length != priorities.length) {
+            throw new IllegalArgumentException("ids 和 priorities 的长度不同");
+        }
+        int len = ids.length;
+        if (size + len > this.ids.length) {
+            this.ids = Arrays.copyOf(this.ids, size + len);
+            this.keys = Arrays.copyOf(this.keys, size + len);
+        }
+        // 先检查所有编号并占好 pos，有问题时撤销，保持堆不变
+        for (int i = 0; i < len; i++) {
+            int id = ids[i];
+            if (id < 0 || contains(id)) {
+                for (int j = 0; j < i; j++) {
+                    pos[ids[j]] = ABSENT;
+                }
+                throw new IllegalArgumentException("编号小于 0、重复或者已经在堆中：" + id);
+            }
+            ensureId(id);
+            pos[id] = size + i;
+        }
+        if ((long) len * (32 - Integer.numberOfLeadingZeros(size + len)) < size + len) {
+            for (int i = 0; i < len; i++) {
+                siftUp(size++, ids[i], priorities[i]);
+            }
+            return;
+        }
+        System.arraycopy(ids, 0, this.ids, size, len);
+        System.arraycopy(priorities, 0, keys, size, len);
+        size += len;
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(i, this.ids[i], keys[i]);
+        }
+    }
+
+    /**
+     * @param id 编号
+     * @return 编号是否在堆中
+     */
+    public boolean contains(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("编号不能小于 0：" + id);
+        }
+        return id < pos.length && pos[id] != ABSENT;
+    }
+
+    /**
+     * @param id 编号
+     * @return 编号的优先级
+     * @throws NoSuchElementException 编号不在堆中
+     */
+    public long priorityOf(int id) {
+        return keys[indexOf(id)];
+    }
+
+    /**
+     * 降低编号的优先级，小顶堆中往上堆化，大顶堆中往下堆化
+     *
+     * @param id       编号
+     * @param priority 新的优先级，不能大于原来的优先级
+     * @throws NoSuchElementException   编号不在堆中
+     * @throws IllegalArgumentException 新的优先级大于原来的优先级
+     */
+    public void decreaseKey(int id, long priority) {
+        if (priority > priorityOf(id)) {
+            throw new IllegalArgumentException("新的优先级 " + priority + " 大于原来的优先级 " + priorityOf(id));
+        }
+        update(id, priority);
+    }
+
+    /**
+     * 提高编号的优先级
+     *
+     * @param id       编号
+     * @param priority 新的优先级，不能小于原来的优先级
+     * @throws NoSuchElementException   编号不在堆中
+     * @throws IllegalArgumentException 新的优先级小于原来的优先级
+     */
+    public void increaseKey(int id, long priority) {
+        if (priority < priorityOf(id)) {
+            throw new IllegalArgumentException("新的优先级 " + priority + " 小于原来的优先级 " + priorityOf(id));
+        }
+        update(id, priority);
+    }
+
+    /**
+     * 修改编号的优先级，根据新旧优先级的大小往上或往下堆化
+     *
+     * @param id       编号
+     * @param priority 新的优先级
+     * @throws NoSuchElementException 编号不在堆中
+     */
+    public void update(int id, long priority) {
+        int i = indexOf(id);
+        if (above(priority, keys[i])) {
+            siftUp(i, id, priority);
+        } else {
+            siftDown(i, id, priority);
+        }
+    }
+
+    /**
+     * @return 堆顶的编号，不删除
+     * @throws NoSuchElementException 堆为空
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return ids[0];
+    }
+
+    /**
+     * @return 堆顶编号的优先级
+     * @throws NoSuchElementException 堆为空
+     */
+    public long peekPriority() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return keys[0];
+    }
+
+    /**
+     * 删除堆顶的编号
+     *
+     * @return 堆顶的编号
+     * @throws NoSuchElementException 堆为空
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int top = ids[0];
+        removeAt(0);
+        return top;
+    }
+
+    /**
+     * 删除指定的编号
+     *
+     * @param id 编号
+     * @return 编号原来在堆中时返回 true
+     */
+    public boolean remove(int id) {
+        if (!contains(id)) {
+            return false;
+        }
+        removeAt(pos[id]);
+        return true;
+    }
+
+    /**
+     * @return 元素个数
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 清空堆
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            pos[ids[i]] = ABSENT;
+        }
+        size = 0;
+    }
+
+    private int indexOf(int id) {
+        if (!contains(id)) {
+            throw new NoSuchElementException("编号不在堆中：" + id);
+        }
+        return pos[id];
+    }
+
+    /**
+     * 删除下标 i 处的元素：把最后一个元素放到 i 处，再往上或往下堆化
+     */
+    private void removeAt(int i) {
+        pos[ids[i]] = ABSENT;
+        int last = --size;
+        if (i == last) {
+            return;
+        }
+        int id = ids[last];
+        long key = keys[last];
+        if (i > 0 && above(key, keys[(i - 1) >>> 1])) {
+            siftUp(i, id, key);
+        } else {
+            siftDown(i, id, key);
+        }
+    }
+
+    /**
+     * a 是否应该排在 b 的上面
+     */
+    private boolean above(long a, long b) {
+        return max ? a > b : a < b;
+    }
+
+    private void ensureId(int id) {
+        if (id >= pos.length) {
+            int old = pos.length;
+            pos = Arrays.copyOf(pos, Math.max(id + 1, old + (old >> 1)));
+            Arrays.fill(pos, old, pos.length, ABSENT);
+        }
+    }
+
+    /**
+     * 把 (id, key) 放到下标 i 处，从下往上堆化
+     */
+    private void siftUp(int i, int id, long key) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!above(key, keys[parent])) {
+                break;
+            }
+            move(parent, i);
+            i = parent;
+        }
+        set(i, id, key);
+    }
+
+    /**
+     * 把 (id, key) 放到下标 i 处，从上往下堆化
+     */
+    private void siftDown(int i, int id, long key) {
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && above(keys[right], keys[child])) {
+                child = right;
+            }
+            if (!above(keys[child], key)) {
+                break;
+            }
+            move(child, i);
+            i = child;
+        }
+        set(i, id, key);
+    }
+
+    private void move(int from, int to) {
+        int id = ids[from];
+        ids[to] = id;
+        keys[to] = keys[from];
+        pos[id] = to;
+    }
+
+    private void set(int i, int id, long key) {
+        ids[i] = id;
+        keys[i] = key;
+        pos[id] = i;
+    }
+
+    public static void main(String[] args) {
+        // 任务编号 -> 截止时间
+        IndexedLongHeap queue = IndexedLongHeap.minHeap();
+        queue.addAll(new int[]{0, 1, 2, 3}, new long[]{500, 300, 800, 100});
+        queue.decreaseKey(2, 50);
+        queue.remove(3);
+        StringBuilder sb = new StringBuilder();
+        while (!queue.isEmpty()) {
+            long deadline = queue.peekPriority();
+            sb.append(queue.poll()).append('@').append(deadline).append(' ');
+        }
+        System.out.println(sb);
+    }
+}
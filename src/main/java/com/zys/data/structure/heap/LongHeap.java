@@ -0,0 +1,247 @@
+package com.zys.data.structure.heap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * long 堆（优先级队列），元素直接存放在 long[] 中，没有装箱
+ * <p>
+ * 和 {@link com.zys.data.structure.Heap} 的区别：
+ * 1. 数组从下标 0 开始存储，节点 i 的子节点是 2i + 1、2i + 2，父节点是 (i - 1) / 2；
+ * 2. 可以是大顶堆也可以是小顶堆，通过 {@link #maxHeap()} / {@link #minHeap()} 创建；
+ * 3. 空间不够时自动扩容为原来的 1.5 倍；
+ * 4. 堆化时不做交换，而是把要移动的元素先拿出来，沿路径把其他元素往上（或往下）挪，最后再放进空出的位置，每层只写一次数组；
+ * 5. {@link #addAll} 一次插入很多元素时，先追加到数组末尾，再从最后一个非叶子节点开始从上往下堆化（Floyd 建堆），是 O(n) 的。
+ * <p>
+ * 非线程安全。
+ *
+ * @author: zys
+ * @date: 2026/10/21 09:05
+ */
+public class LongHeap {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * true 表示大顶堆，false 表示小顶堆
+     */
+    private final boolean max;
+
+    private long[] elements;
+
+    private int size;
+
+    private LongHeap(boolean max, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity 不能小于 0");
+        }
+        this.max = max;
+        this.elements = new long[Math.max(capacity, 1)];
+    }
+
+    /**
+     * @return 大顶堆，堆顶是最大的元素
+     */
+    public static LongHeap maxHeap() {
+        return new LongHeap(true, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity 初始容量，超过之后自动扩容
+     * @return 大顶堆，堆顶是最大的元素
+     */
+    public static LongHeap maxHeap(int capacity) {
+        return new LongHeap(true, capacity);
+    }
+
+    /**
+     * @return 小顶堆，堆顶是最小的元素
+     */
+    public static LongHeap minHeap() {
+        return new LongHeap(false, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity 初始容量，超过之后自动扩容
+     * @return 小顶堆，堆顶是最小的元素
+     */
+    public static LongHeap minHeap(int capacity) {
+        return new LongHeap(false, capacity);
+    }
+
+    /**
+     * 插入元素，从下往上堆化
+     *
+     * @param value 插入的元素
+     */
+    public void add(long value) {
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        siftUp(size++, value);
+    }
+
+    /**
+     * 批量插入
+     *
+     * @param values 插入的元素
+     */
+    public void addAll(long[] values) {
+        addAll(values, 0, values.length);
+    }
+
+    /**
+     * 批量插入 values[off, off + len)
+     * 插入的元素相对于堆的大小很少时逐个从下往上堆化，否则追加到末尾之后整体重新建堆
+     */
+    public void addAll(long[] values, int off, int len) {
+        if (size + len > elements.length) {
+            grow(size + len);
+        }
+        // 逐个插入的代价约为 len * log(size)，重新建堆的代价约为 size + len
+        if ((long) len * (32 - Integer.numberOfLeadingZeros(size + len)) < size + len) {
+            for (int i = 0; i < len; i++) {
+                siftUp(size++, values[off + i]);
+            }
+            return;
+        }
+        System.arraycopy(values, off, elements, size, len);
+        size += len;
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(i, elements[i]);
+        }
+    }
+
+    /**
+     * @return 堆顶元素，不删除
+     * @throws NoSuchElementException 堆为空
+     */
+    public long peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elements[0];
+    }
+
+    /**
+     * 删除堆顶元素：把最后一个元素放到堆顶，从上往下堆化
+     *
+     * @return 堆顶元素
+     * @throws NoSuchElementException 堆为空
+     */
+    public long poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        long top = elements[0];
+        long last = elements[--size];
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return top;
+    }
+
+    /**
+     * 用 value 替换堆顶元素，相当于先 poll 再 add，但只堆化一次
+     *
+     * @param value 新的元素
+     * @return 原来的堆顶元素
+     * @throws NoSuchElementException 堆为空
+     */
+    public long replaceTop(long value) {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        long top = elements[0];
+        siftDown(0, value);
+        return top;
+    }
+
+    /**
+     * @return 元素个数
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 清空堆，保留已经分配的数组
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return 堆中所有元素的副本，按数组中的存储顺序（不是有序的）
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * a 是否应该排在 b 的上面
+     */
+    private boolean above(long a, long b) {
+        return max ? a > b : a < b;
+    }
+
+    /**
+     * 把 value 放到下标 i 处，从下往上堆化
+     */
+    private void siftUp(int i, long value) {
+        long[] elements = this.elements;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            long p = elements[parent];
+            if (!above(value, p)) {
+                break;
+            }
+            elements[i] = p;
+            i = parent;
+        }
+        elements[i] = value;
+    }
+
+    /**
+     * 把 value 放到下标 i 处，从上往下堆化
+     */
+    private void siftDown(int i, long value) {
+        long[] elements = this.elements;
+        int half = size >>> 1;
+        // 下标小于 half 的节点至少有一个子节点
+        while (i < half) {
+            int child = 2 * i + 1;
+            long c = elements[child];
+            int right = child + 1;
+            if (right < size && above(elements[right], c)) {
+                child = right;
+                c = elements[right];
+            }
+            if (!above(c, value)) {
+                break;
+            }
+            elements[i] = c;
+            i = child;
+        }
+        elements[i] = value;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = elements.length + (elements.length >> 1);
+        elements = Arrays.copyOf(elements, Math.max(capacity, minCapacity));
+    }
+
+    public static void main(String[] args) {
+        LongHeap heap = LongHeap.minHeap(2);
+        heap.addAll(new long[]{5, 3, 8, 1, 9, 2});
+        heap.add(0);
+        StringBuilder sb = new StringBuilder();
+        while (!heap.isEmpty()) {
+            sb.append(heap.poll()).append(' ');
+        }
+        System.out.println(sb);
+    }
+}
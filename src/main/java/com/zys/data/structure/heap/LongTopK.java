@@ -0,0 +1,111 @@
+package com.zys.data.structure.heap;
+
+import java.util.Arrays;
+import java.util.stream.Collector;
+import java.util.stream.LongStream;
+
+/**
+ * 流式 Top K：只保留目前见过的最大的 k 个 long
+ * <p>
+ * 用一个容量为 k 的 {@link LongHeap} 小顶堆，堆顶是这 k 个数里最小的：
+ * 新元素不大于堆顶时直接丢弃，否则用 replaceTop 替换堆顶、从上往下堆化一次。
+ * 堆的数组在构造时一次分配好，之后 offer 不分配任何对象，每个元素最多 O(log k)。
+ * <p>
+ * 可以合并：每个线程各自收集，最后把部分结果 merge 到一起，所以可以直接用于并行流：
+ * <pre>
+ * LongTopK top = longStream.parallel().collect(() -&gt; new LongTopK(10), LongTopK::offer, LongTopK::merge);
+ * </pre>
+ * 非线程安全。
+ *
+ * @author: zys
+ * @date: 2026/10/21 21:00
+ */
+public class LongTopK {
+    private final int k;
+
+    private final LongHeap heap;
+
+    /**
+     * @param k 保留的元素个数
+     */
+    public LongTopK(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k 必须大于 0");
+        }
+        this.k = k;
+        this.heap = LongHeap.minHeap(k);
+    }
+
+    /**
+     * 用于 Stream&lt;Long&gt; 的 Collector，LongStream 请直接用 collect(supplier, offer, merge)
+     *
+     * @param k 保留的元素个数
+     * @return Collector
+     */
+    public static Collector<Long, ?, LongTopK> collector(int k) {
+        return Collector.of(() -> new LongTopK(k), LongTopK::offer, (a, b) -> {
+            a.merge(b);
+            return a;
+        });
+    }
+
+    /**
+     * 处理一个元素
+     *
+     * @param value 元素
+     */
+    public void offer(long value) {
+        if (heap.size() < k) {
+            heap.add(value);
+        } else if (value > heap.peek()) {
+            heap.replaceTop(value);
+        }
+    }
+
+    /**
+     * 合并另一个部分结果，合并之后的结果和两个部分结果的元素全部 offer 到一起相同
+     *
+     * @param other 另一个部分结果，k 可以不同
+     */
+    public void merge(LongTopK other) {
+        for (long value : other.heap.toArray()) {
+            offer(value);
+        }
+    }
+
+    /**
+     * @return 保留的元素个数，见过的元素不足 k 个时小于 k
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * @return 第 k 大的元素（保留的元素中最小的），可以作为阈值过滤后续的元素
+     * @throws java.util.NoSuchElementException 还没有见过任何元素
+     */
+    public long threshold() {
+        return heap.peek();
+    }
+
+    /**
+     * @return 保留的元素，从大到小排列
+     */
+    public long[] toArray() {
+        long[] values = heap.toArray();
+        Arrays.sort(values);
+        for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+            long temp = values[i];
+            values[i] = values[j];
+            values[j] = temp;
+        }
+        return values;
+    }
+
+    public static void main(String[] args) {
+        LongTopK top = LongStream.range(0, 1_000_000).parallel()
+                .map(i -> (i * 2654435761L) % 1_000_003)
+                .collect(() -> new LongTopK(5), LongTopK::offer, LongTopK::merge);
+        System.out.println(Arrays.toString(top.toArray()));
+    }
+}
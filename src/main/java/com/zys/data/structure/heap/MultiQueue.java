@@ -0,0 +1,206 @@
+package com.zys.data.structure.heap;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 宽松顺序的并发优先级队列（MultiQueue）
+ * <p>
+ * 由 n 个各自带锁的 {@link LongHeap} 大顶堆组成，每个小堆把自己的堆顶发布到一个 volatile 字段里：
+ * 1. 插入：随机选一个小堆，tryLock 成功就插入，失败说明有别的线程正在用，换一个小堆再试，从不阻塞等锁；
+ * 2. 删除：随机选两个小堆，读它们发布的堆顶（不加锁），对较大的那个 tryLock 并删除堆顶，失败就重新选。
+ * “两个里选较大的”保证了删除的元素在全局的排名期望上是 O(n) 的，即离真正的最大值不远；
+ * 3. 线程数不超过小堆个数的一半时，两个线程选中同一个小堆的概率很低，几乎没有锁竞争，
+ * 每次操作只锁一个小堆，吞吐量随线程数近似线性增长。
+ * <p>
+ * 连续多次随机选中的小堆都是空的（或者都被锁住）时，按顺序扫描所有小堆，扫描过程中每个小堆都是空的才返回 {@link #EMPTY}；
+ * 没有并发插入时这就说明队列确实是空的，有并发插入时刚插入的元素可能被这一次扫描错过。
+ * <p>
+ * 锁是一个 int 字段上的 CAS，加锁和解锁建立 happens-before 关系，所以小堆本身不需要是线程安全的。
+ *
+ * @author: zys
+ * @date: 2026/10/21 19:30
+ */
+public class MultiQueue implements ConcurrentLongPriorityQueue {
+    private static final VarHandle LOCK;
+
+    static {
+        try {
+            LOCK = MethodHandles.lookup().findVarHandle(QueueFields.class, "locked", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Queue[] queues;
+
+    /**
+     * @param queues 小堆的个数，一般取线程数的 2 倍
+     */
+    public MultiQueue(int queues) {
+        if (queues <= 0) {
+            throw new IllegalArgumentException("queues 必须大于 0");
+        }
+        this.queues = new Queue[queues];
+        for (int i = 0; i < queues; i++) {
+            this.queues[i] = new Queue();
+        }
+    }
+
+    /**
+     * 前面的填充。JVM 会重排同一个类中的字段，但父类的字段总是排在子类的字段之前，
+     * 所以用继承把锁和堆顶夹在两段 56 字节的填充中间，不同小堆的锁不会落在同一个缓存行上，避免伪共享
+     */
+    @SuppressWarnings("unused")
+    private abstract static class LeftPadding {
+        long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    private abstract static class QueueFields extends LeftPadding {
+        /**
+         * 0 表示未加锁，1 表示已加锁
+         */
+        volatile int locked;
+
+        /**
+         * 发布的堆顶，小堆为空时是 EMPTY
+         */
+        volatile long top = EMPTY;
+
+        /**
+         * 发布的元素个数
+         */
+        volatile int size;
+
+        final LongHeap heap = LongHeap.maxHeap();
+    }
+
+    /**
+     * 一个带锁的小堆
+     */
+    @SuppressWarnings("unused")
+    private static final class Queue extends QueueFields {
+        long p11, p12, p13, p14, p15, p16, p17;
+
+        boolean tryLock() {
+            return locked == 0 && LOCK.compareAndSet(this, 0, 1);
+        }
+
+        void lock() {
+            while (!tryLock()) {
+                Thread.onSpinWait();
+            }
+        }
+
+        void unlock() {
+            LOCK.setRelease(this, 0);
+        }
+
+        /**
+         * 修改小堆之后（持有锁）发布新的堆顶和元素个数
+         */
+        void publish() {
+            top = heap.isEmpty() ? EMPTY : heap.peek();
+            size = heap.size();
+        }
+    }
+
+    @Override
+    public void add(long value) {
+        if (value == EMPTY) {
+            throw new IllegalArgumentException("不能插入 EMPTY");
+        }
+        Queue[] queues = this.queues;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Queue q = queues[random.nextInt(queues.length)];
+            if (q.tryLock()) {
+                try {
+                    q.heap.add(value);
+                    q.publish();
+                } finally {
+                    q.unlock();
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    public long removeMax() {
+        Queue[] queues = this.queues;
+        int n = queues.length;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < n; attempt++) {
+            Queue a = queues[random.nextInt(n)];
+            Queue b = queues[random.nextInt(n)];
+            Queue q = a.top >= b.top ? a : b;
+            if (q.top == EMPTY || !q.tryLock()) {
+                continue;
+            }
+            try {
+                // 读堆顶和加锁之间可能被别的线程删空了
+                if (!q.heap.isEmpty()) {
+                    return pollLocked(q);
+                }
+            } finally {
+                q.unlock();
+            }
+        }
+        // 随机选择一直失败：队列可能快空了，按顺序扫描一遍，这时加锁要等
+        int start = random.nextInt(n);
+        for (int k = 0; k < n; k++) {
+            Queue q = queues[(start + k) % n];
+            if (q.top == EMPTY) {
+                continue;
+            }
+            q.lock();
+            try {
+                if (!q.heap.isEmpty()) {
+                    return pollLocked(q);
+                }
+            } finally {
+                q.unlock();
+            }
+        }
+        return EMPTY;
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Queue q : queues) {
+            size += q.size;
+        }
+        return size;
+    }
+
+    private static long pollLocked(Queue q) {
+        long value = q.heap.poll();
+        q.publish();
+        return value;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentLongPriorityQueue queue = ConcurrentLongPriorityQueue.relaxed(8);
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            int id = t;
+            producers[t] = new Thread(() -> {
+                for (int i = id; i < 100_000; i += producers.length) {
+                    queue.add(i);
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            sb.append(queue.removeMax()).append(' ');
+        }
+        System.out.println(queue.size() + " " + sb);
+    }
+}
@@ -0,0 +1,217 @@
+package com.zys.data.structure.heap;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * 按 Comparator 排序的堆，堆顶是 comparator 意义下最小的元素
+ * <p>
+ * 存储方式和堆化方法与 {@link IntHeap} 相同：数组从下标 0 开始存储，自动扩容，批量插入时 O(n) 建堆。
+ * 需要大顶堆时传入 {@code comparator.reversed()}。
+ * <p>
+ * 非线程安全。
+ *
+ * @author: zys
+ * @date: 2026/10/21 09:20
+ */
+public class ObjectHeap<E> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Comparator<? super E> comparator;
+
+    private Object[] elements;
+
+    private int size;
+
+    /**
+     * @param comparator 比较器
+     */
+    public ObjectHeap(Comparator<? super E> comparator) {
+        this(comparator, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param comparator 比较器
+     * @param capacity   初始容量，超过之后自动扩容
+     */
+    public ObjectHeap(Comparator<? super E> comparator, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity 不能小于 0");
+        }
+        this.comparator = comparator;
+        this.elements = new Object[Math.max(capacity, 1)];
+    }
+
+    /**
+     * 插入元素，从下往上堆化
+     *
+     * @param value 插入的元素，不能为 null
+     */
+    public void add(E value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        siftUp(size++, value);
+    }
+
+    /**
+     * 批量插入，插入的元素相对于堆的大小很少时逐个从下往上堆化，否则追加到末尾之后整体重新建堆
+     *
+     * @param values 插入的元素，不能包含 null
+     */
+    public void addAll(E[] values) {
+        int len = values.length;
+        for (E value : values) {
+            if (value == null) {
+                throw new NullPointerException();
+            }
+        }
+        if (size + len > elements.length) {
+            grow(size + len);
+        }
+        if ((long) len * (32 - Integer.numberOfLeadingZeros(size + len)) < size + len) {
+            for (E value : values) {
+                siftUp(size++, value);
+            }
+            return;
+        }
+        System.arraycopy(values, 0, elements, size, len);
+        size += len;
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(i, elementAt(i));
+        }
+    }
+
+    /**
+     * @return 堆顶元素，不删除
+     * @throws NoSuchElementException 堆为空
+     */
+    public E peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elementAt(0);
+    }
+
+    /**
+     * 删除堆顶元素
+     *
+     * @return 堆顶元素
+     * @throws NoSuchElementException 堆为空
+     */
+    public E poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        E top = elementAt(0);
+        E last = elementAt(--size);
+        elements[size] = null;
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return top;
+    }
+
+    /**
+     * 用 value 替换堆顶元素，相当于先 poll 再 add，但只堆化一次
+     *
+     * @param value 新的元素，不能为 null
+     * @return 原来的堆顶元素
+     * @throws NoSuchElementException 堆为空
+     */
+    public E replaceTop(E value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        E top = elementAt(0);
+        siftDown(0, value);
+        return top;
+    }
+
+    /**
+     * @return 元素个数
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 清空堆，释放对元素的引用
+     */
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * @return 比较器
+     */
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E elementAt(int i) {
+        return (E) elements[i];
+    }
+
+    private void siftUp(int i, E value) {
+        Object[] elements = this.elements;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            E p = elementAt(parent);
+            if (comparator.compare(value, p) >= 0) {
+                break;
+            }
+            elements[i] = p;
+            i = parent;
+        }
+        elements[i] = value;
+    }
+
+    private void siftDown(int i, E value) {
+        Object[] elements = this.elements;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            E c = elementAt(child);
+            int right = child + 1;
+            if (right < size && comparator.compare(elementAt(right), c) < 0) {
+                child = right;
+                c = elementAt(right);
+            }
+            if (comparator.compare(c, value) >= 0) {
+                break;
+            }
+            elements[i] = c;
+            i = child;
+        }
+        elements[i] = value;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = elements.length + (elements.length >> 1);
+        elements = Arrays.copyOf(elements, Math.max(capacity, minCapacity));
+    }
+
+    public static void main(String[] args) {
+        ObjectHeap<String> heap = new ObjectHeap<>(Comparator.comparingInt(String::length));
+        heap.addAll(new String[]{"heap", "a", "priority", "queue"});
+        StringBuilder sb = new StringBuilder();
+        while (!heap.isEmpty()) {
+            sb.append(heap.poll()).append(' ');
+        }
+        System.out.println(sb);
+    }
+}
@@ -0,0 +1,120 @@
+package com.zys.data.structure.heap;
+
+import java.util.NoSuchElementException;
+import java.util.stream.Collector;
+import java.util.stream.LongStream;
+
+/**
+ * 流式中位数：双堆法
+ * <p>
+ * 较小的一半放在 {@link LongHeap} 大顶堆 lower 中，较大的一半放在小顶堆 upper 中，
+ * 并且保持 lower 的元素个数等于 upper 的元素个数或者多一个：
+ * 1. 新元素不大于 lower 的堆顶时放进 lower，否则放进 upper；
+ * 2. 两边的个数不满足要求时，把多的一边的堆顶移到另一边。
+ * 这样中位数就在两个堆顶上，插入是 O(log n)，查询是 O(1)。
+ * <p>
+ * 可以合并：每个线程各自收集，最后把部分结果 merge 到一起，所以可以直接用于并行流：
+ * <pre>
+ * RunningMedian median = longStream.parallel().collect(RunningMedian::new, RunningMedian::add, RunningMedian::merge);
+ * </pre>
+ * 精确的中位数需要保留全部元素，内存是 O(n) 的。非线程安全。
+ *
+ * @author: zys
+ * @date: 2026/10/21 21:30
+ */
+public class RunningMedian {
+    /**
+     * 较小的一半，大顶堆
+     */
+    private final LongHeap lower = LongHeap.maxHeap();
+
+    /**
+     * 较大的一半，小顶堆
+     */
+    private final LongHeap upper = LongHeap.minHeap();
+
+    /**
+     * 用于 Stream&lt;Long&gt; 的 Collector，LongStream 请直接用 collect(supplier, add, merge)
+     *
+     * @return Collector
+     */
+    public static Collector<Long, ?, RunningMedian> collector() {
+        return Collector.of(RunningMedian::new, RunningMedian::add, (a, b) -> {
+            a.merge(b);
+            return a;
+        });
+    }
+
+    /**
+     * 加入一个元素
+     *
+     * @param value 元素
+     */
+    public void add(long value) {
+        if (lower.isEmpty() || value <= lower.peek()) {
+            lower.add(value);
+        } else {
+            upper.add(value);
+        }
+        if (lower.size() > upper.size() + 1) {
+            upper.add(lower.poll());
+        } else if (upper.size() > lower.size()) {
+            lower.add(upper.poll());
+        }
+    }
+
+    /**
+     * 合并另一个部分结果
+     *
+     * @param other 另一个部分结果
+     */
+    public void merge(RunningMedian other) {
+        for (long value : other.lower.toArray()) {
+            add(value);
+        }
+        for (long value : other.upper.toArray()) {
+            add(value);
+        }
+    }
+
+    /**
+     * @return 中位数，元素个数为偶数时是中间两个数的平均值
+     * @throws NoSuchElementException 还没有加入任何元素
+     */
+    public double median() {
+        if (lower.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        if (lower.size() > upper.size()) {
+            return lower.peek();
+        }
+        return (lower.peek() + (double) upper.peek()) / 2;
+    }
+
+    /**
+     * @return 下中位数（第 ceil(n / 2) 小的元素），元素个数为偶数时不求平均，结果一定是出现过的元素
+     * @throws NoSuchElementException 还没有加入任何元素
+     */
+    public long lowerMedian() {
+        return lower.peek();
+    }
+
+    /**
+     * @return 元素个数
+     */
+    public int size() {
+        return lower.size() + upper.size();
+    }
+
+    public static void main(String[] args) {
+        RunningMedian running = new RunningMedian();
+        for (long latency : new long[]{12, 3, 40, 7, 9, 100}) {
+            running.add(latency);
+            System.out.print(running.median() + " ");
+        }
+        System.out.println();
+        RunningMedian merged = LongStream.rangeClosed(1, 100_000).parallel()
+                .collect(RunningMedian::new, RunningMedian::add, RunningMedian::merge);
+        System.out.println(merged.median());
+    }
+}
@@ -0,0 +1,65 @@
+package com.zys.data.structure.heap;
+
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 严格顺序的并发优先级队列，基于无锁的 {@link ConcurrentSkipListSet}
+ * <p>
+ * 跳表中的每个节点是 (优先级, 序号)，按优先级从大到小、序号从小到大排序，
+ * 序号保证了重复的优先级也是不同的节点，并且优先级相同时先插入的先删除。
+ * removeMax 就是 pollFirst，总是删除当前最大的元素；插入和删除都是无锁的，
+ * 但删除都发生在跳表头部，线程越多头部的 CAS 冲突越多。每个元素要创建一个对象。
+ *
+ * @author: zys
+ * @date: 2026/10/21 19:10
+ */
+public class SkipListLongPriorityQueue implements ConcurrentLongPriorityQueue {
+    private static final Comparator<Entry> ORDER = (a, b) -> {
+        int cmp = Long.compare(b.priority, a.priority);
+        return cmp != 0 ? cmp : Long.compare(a.sequence, b.sequence);
+    };
+
+    private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>(ORDER);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final LongAdder size = new LongAdder();
+
+    private static final class Entry {
+        final long priority;
+
+        final long sequence;
+
+        Entry(long priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+
+    @Override
+    public void add(long value) {
+        if (value == EMPTY) {
+            throw new IllegalArgumentException("不能插入 EMPTY");
+        }
+        entries.add(new Entry(value, sequence.getAndIncrement()));
+        size.increment();
+    }
+
+    @Override
+    public long removeMax() {
+        Entry first = entries.pollFirst();
+        if (first == null) {
+            return EMPTY;
+        }
+        size.decrement();
+        return first.priority;
+    }
+
+    @Override
+    public long size() {
+        return Math.max(size.sum(), 0);
+    }
+}
@@ -0,0 +1,69 @@
+package com.zys.data.structure.trie;
+
+/**
+ * Trie 树节点的子节点存储
+ * <p>
+ * 原来的实现用 children[c - 'a'] 的对象数组代替指针，字符集一大内存就爆了。
+ * 这里把子节点的存储抽象出来，按字符集和分叉数选择不同的实现：
+ * 稠密数组（字符集很小）、有序数组（分叉数少）、开放寻址散列表（分叉数多）。
+ * <p>
+ * 遍历不使用迭代器，而是按槽位下标访问，槽位上可能是空的，这样遍历时不需要创建对象：
+ * <pre>
+ * for (int i = 0; i &lt; map.slots(); i++) {
+ *     T child = map.valueAt(i);
+ *     if (child != null) { ... map.keyAt(i) ... }
+ * }
+ * </pre>
+ *
+ * @author: zys
+ * @date: 2026/10/18 16:02
+ */
+public interface ChildMap<T> {
+
+    /**
+     * 查找子节点
+     *
+     * @param key 字符（或字节）
+     * @return 子节点，不存在时返回 null
+     */
+    T get(int key);
+
+    /**
+     * 放入子节点，容量不够时会换成更大的存储
+     *
+     * @param key   字符（或字节）
+     * @param child 子节点
+     * @return 放入后的存储，调用方需要用返回值替换原来的引用
+     */
+    ChildMap<T> put(int key, T child);
+
+    /**
+     * 删除子节点
+     *
+     * @param key 字符（或字节）
+     * @return 被删除的子节点，不存在时返回 null
+     */
+    T remove(int key);
+
+    /**
+     * @return 子节点个数
+     */
+    int size();
+
+    /**
+     * @return 槽位个数，用于遍历
+     */
+    int slots();
+
+    /**
+     * @param slot 槽位下标
+     * @return 槽位上的字符，槽位为空时没有意义
+     */
+    int keyAt(int slot);
+
+    /**
+     * @param slot 槽位下标
+     * @return 槽位上的子节点，可能为 null
+     */
+    T valueAt(int slot);
+}
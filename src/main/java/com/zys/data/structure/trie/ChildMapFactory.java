@@ -0,0 +1,61 @@
+package com.zys.data.structure.trie;
+
+/**
+ * 子节点存储的创建策略，Trie 树为每个非叶子节点创建一个 {@link ChildMap}
+ *
+ * @author: zys
+ * @date: 2026/10/18 16:10
+ */
+@FunctionalInterface
+public interface ChildMapFactory {
+
+    /**
+     * @param <T> 节点类型
+     * @return 空的子节点存储
+     */
+    <T> ChildMap<T> create();
+
+    /**
+     * 稠密数组，等价于原来的 children[c - base]，只适合 a-z 这种很小的字符集
+     *
+     * @param base 字符集的起始字符
+     * @param size 字符集大小
+     * @return 创建策略
+     */
+    static ChildMapFactory dense(int base, int size) {
+        return new ChildMapFactory() {
+            @Override
+            public <T> ChildMap<T> create() {
+                return new DenseChildMap<>(base, size);
+            }
+        };
+    }
+
+    /**
+     * 有序数组，二分查找，内存只与分叉数有关，适合绝大多数节点只有少量子节点的情况
+     *
+     * @return 创建策略
+     */
+    static ChildMapFactory sorted() {
+        return new ChildMapFactory() {
+            @Override
+            public <T> ChildMap<T> create() {
+                return new SortedChildMap<>();
+            }
+        };
+    }
+
+    /**
+     * 开放寻址的散列表，查找 O(1)，适合根节点附近分叉数很大的情况
+     *
+     * @return 创建策略
+     */
+    static ChildMapFactory hash() {
+        return new ChildMapFactory() {
+            @Override
+            public <T> ChildMap<T> create() {
+                return new HashChildMap<>();
+            }
+        };
+    }
+}
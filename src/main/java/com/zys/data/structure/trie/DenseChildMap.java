@@ -0,0 +1,81 @@
+package com.zys.data.structure.trie;
+
+/**
+ * 稠密数组存储，下标是 key - base
+ *
+ * @author: zys
+ * @date: 2026/10/18 16:15
+ */
+public class DenseChildMap<T> implements ChildMap<T> {
+    /**
+     * 字符集的起始字符
+     */
+    private final int base;
+
+    /**
+     * 用对象数组的方式代替指针
+     */
+    private final Object[] children;
+
+    private int size;
+
+    public DenseChildMap(int base, int capacity) {
+        this.base = base;
+        this.children = new Object[capacity];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int key) {
+        int idx = key - base;
+        // 字符集之外的字符不可能有子节点
+        if (idx < 0 || idx >= children.length) {
+            return null;
+        }
+        return (T) children[idx];
+    }
+
+    @Override
+    public ChildMap<T> put(int key, T child) {
+        int idx = key - base;
+        if (idx < 0 || idx >= children.length) {
+            throw new IllegalArgumentException("字符超出字符集范围：" + key);
+        }
+        if (children[idx] == null) {
+            size++;
+        }
+        children[idx] = child;
+        return this;
+    }
+
+    @Override
+    public T remove(int key) {
+        T child = get(key);
+        if (child != null) {
+            children[key - base] = null;
+            size--;
+        }
+        return child;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int slots() {
+        return children.length;
+    }
+
+    @Override
+    public int keyAt(int slot) {
+        return slot + base;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T valueAt(int slot) {
+        return (T) children[slot];
+    }
+}
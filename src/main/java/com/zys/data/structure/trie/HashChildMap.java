@@ -0,0 +1,145 @@
+package com.zys.data.structure.trie;
+
+/**
+ * 开放寻址（线性探测）散列表存储，key 直接存成 int，没有装箱
+ * 槽位上的子节点为 null 表示这个槽位是空的
+ *
+ * @author: zys
+ * @date: 2026/10/18 16:28
+ */
+public class HashChildMap<T> implements ChildMap<T> {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] keys;
+
+    private Object[] children;
+
+    /**
+     * capacity - 1，capacity 是 2 的幂次
+     */
+    private int mask;
+
+    private int size;
+
+    public HashChildMap() {
+        this.keys = new int[INITIAL_CAPACITY];
+        this.children = new Object[INITIAL_CAPACITY];
+        this.mask = INITIAL_CAPACITY - 1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int key) {
+        int i = hash(key) & mask;
+        Object child;
+        while ((child = children[i]) != null) {
+            if (keys[i] == key) {
+                return (T) child;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    @Override
+    public ChildMap<T> put(int key, T child) {
+        // 装载因子控制在 1/2 以内，探测长度很短
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int i = hash(key) & mask;
+        while (children[i] != null) {
+            if (keys[i] == key) {
+                children[i] = child;
+                return this;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        children[i] = child;
+        size++;
+        return this;
+    }
+
+    /**
+     * 线性探测不能直接把槽位置空，否则会截断后面元素的探测序列。
+     * 这里把后面同一探测序列上的元素依次往前挪（backward shift），不需要墓碑标记
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T remove(int key) {
+        int i = hash(key) & mask;
+        Object child;
+        while ((child = children[i]) != null) {
+            if (keys[i] == key) {
+                break;
+            }
+            i = (i + 1) & mask;
+        }
+        if (child == null) {
+            return null;
+        }
+        int hole = i;
+        int j = (i + 1) & mask;
+        while (children[j] != null) {
+            int home = hash(keys[j]) & mask;
+            // home 不在 (hole, j] 这个循环区间内时，说明 j 上的元素可以挪到空洞上
+            if (hole <= j ? (home <= hole || home > j) : (home <= hole && home > j)) {
+                keys[hole] = keys[j];
+                children[hole] = children[j];
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        children[hole] = null;
+        size--;
+        return (T) child;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldChildren = children;
+        keys = new int[capacity];
+        children = new Object[capacity];
+        mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldChildren[j] != null) {
+                int i = hash(oldKeys[j]) & mask;
+                while (children[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                children[i] = oldChildren[j];
+            }
+        }
+    }
+
+    /**
+     * 字符的低位分布很不均匀（比如中文字符集中在一段区间），乘以黄金分割常数打散
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int slots() {
+        return keys.length;
+    }
+
+    @Override
+    public int keyAt(int slot) {
+        return keys[slot];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T valueAt(int slot) {
+        return (T) children[slot];
+    }
+}
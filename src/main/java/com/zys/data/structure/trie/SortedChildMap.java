@@ -0,0 +1,105 @@
+package com.zys.data.structure.trie;
+
+import java.util.Arrays;
+
+/**
+ * 有序数组存储，keys 升序排列，查找用二分
+ *
+ * @author: zys
+ * @date: 2026/10/18 16:20
+ */
+public class SortedChildMap<T> implements ChildMap<T> {
+    private static final int[] EMPTY_KEYS = {};
+
+    private static final Object[] EMPTY_CHILDREN = {};
+
+    /**
+     * 分叉数不超过这个值时，顺序查找比二分更快
+     */
+    private static final int LINEAR_SEARCH_THRESHOLD = 8;
+
+    private int[] keys = EMPTY_KEYS;
+
+    private Object[] children = EMPTY_CHILDREN;
+
+    private int size;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int key) {
+        int idx = indexOf(key);
+        return idx >= 0 ? (T) children[idx] : null;
+    }
+
+    @Override
+    public ChildMap<T> put(int key, T child) {
+        int idx = indexOf(key);
+        if (idx >= 0) {
+            children[idx] = child;
+            return this;
+        }
+        // 插入点
+        idx = -idx - 1;
+        if (size == keys.length) {
+            int capacity = size == 0 ? 2 : size + (size >> 1) + 1;
+            keys = Arrays.copyOf(keys, capacity);
+            children = Arrays.copyOf(children, capacity);
+        }
+        System.arraycopy(keys, idx, keys, idx + 1, size - idx);
+        System.arraycopy(children, idx, children, idx + 1, size - idx);
+        keys[idx] = key;
+        children[idx] = child;
+        size++;
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T remove(int key) {
+        int idx = indexOf(key);
+        if (idx < 0) {
+            return null;
+        }
+        T child = (T) children[idx];
+        System.arraycopy(keys, idx + 1, keys, idx, size - idx - 1);
+        System.arraycopy(children, idx + 1, children, idx, size - idx - 1);
+        children[--size] = null;
+        return child;
+    }
+
+    /**
+     * @return 找到时返回下标，找不到时返回 -(插入点) - 1，与 Arrays.binarySearch 一致
+     */
+    private int indexOf(int key) {
+        if (size <= LINEAR_SEARCH_THRESHOLD) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] >= key) {
+                    return keys[i] == key ? i : -i - 1;
+                }
+            }
+            return -size - 1;
+        }
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int slots() {
+        return size;
+    }
+
+    @Override
+    public int keyAt(int slot) {
+        return keys[slot];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T valueAt(int slot) {
+        return (T) children[slot];
+    }
+}
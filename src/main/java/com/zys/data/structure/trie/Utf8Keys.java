@@ -0,0 +1,83 @@
+package com.zys.data.structure.trie;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 字节级 Trie 树的 key 编码
+ * <p>
+ * 每个 char 独立编码成 1~3 个字节：BMP 字符与 UTF-8 完全一致，代理对的两个 char 各自编码成 3 个字节（即 CESU-8 / Java 的 modified UTF-8 的做法）。
+ * 编码只依赖当前这一个 char，所以匹配时可以逐个字符现场编码，不需要向后看，也不需要在分块之间保存半个代理对。
+ * 模式串和主串用同一种编码，UTF-8 的自同步特性保证了字节级的命中一定落在完整字符的边界上。
+ *
+ * @author: zys
+ * @date: 2026/10/18 16:40
+ */
+public final class Utf8Keys {
+    /**
+     * 一个 char 最多编码成的字节数
+     */
+    public static final int MAX_BYTES_PER_CHAR = 3;
+
+    private Utf8Keys() {
+    }
+
+    /**
+     * 把一个 char 编码到 out 中
+     *
+     * @param c   字符
+     * @param out 长度至少为 {@link #MAX_BYTES_PER_CHAR} 的数组，复用同一个数组就不会有任何内存分配
+     * @return 写入的字节数
+     */
+    public static int encode(char c, int[] out) {
+        if (c < 0x80) {
+            out[0] = c;
+            return 1;
+        }
+        if (c < 0x800) {
+            out[0] = 0xC0 | (c >> 6);
+            out[1] = 0x80 | (c & 0x3F);
+            return 2;
+        }
+        out[0] = 0xE0 | (c >> 12);
+        out[1] = 0x80 | ((c >> 6) & 0x3F);
+        out[2] = 0x80 | (c & 0x3F);
+        return 3;
+    }
+
+    /**
+     * 把编码后的字节还原成字符串，非法的字节序列（比如直接插入的二进制 key）按 ISO-8859-1 逐字节还原
+     *
+     * @param bytes  字节，每个元素取值 0~255
+     * @param length 字节数
+     * @return 字符串
+     */
+    public static String decode(int[] bytes, int length) {
+        char[] chars = new char[length];
+        int n = 0;
+        int i = 0;
+        while (i < length) {
+            int b = bytes[i];
+            if (b < 0x80) {
+                chars[n++] = (char) b;
+                i++;
+            } else if ((b & 0xE0) == 0xC0 && i + 1 < length && isContinuation(bytes[i + 1])) {
+                chars[n++] = (char) (((b & 0x1F) << 6) | (bytes[i + 1] & 0x3F));
+                i += 2;
+            } else if ((b & 0xF0) == 0xE0 && i + 2 < length && isContinuation(bytes[i + 1]) && isContinuation(bytes[i + 2])) {
+                chars[n++] = (char) (((b & 0x0F) << 12) | ((bytes[i + 1] & 0x3F) << 6) | (bytes[i + 2] & 0x3F));
+                i += 3;
+            } else {
+                byte[] raw = new byte[length];
+                for (int j = 0; j < length; j++) {
+                    raw[j] = (byte) bytes[j];
+                }
+                return new String(raw, StandardCharsets.ISO_8859_1);
+            }
+        }
+        return new String(chars, 0, n);
+    }
+
+    private static boolean isContinuation(int b) {
+        return (b & 0xC0) == 0x80;
+    }
+}
@@ -0,0 +1,114 @@
+package com.zys.data.structure.util;
+
+import java.util.Arrays;
+
+/**
+ * char 到 int 的开放寻址散列表，没有装箱
+ * 小于 256 的字符直接查数组，只有大字符才走散列表，适合英文为主、偶尔夹杂中文的文本
+ *
+ * @author: zys
+ * @date: 2026/10/18 16:50
+ */
+public class CharIntMap {
+    private static final int LOW_SIZE = 256;
+
+    /**
+     * 查找不到时返回的值
+     */
+    private final int defaultValue;
+
+    /**
+     * 小于 256 的字符直接查数组
+     */
+    private final int[] low;
+
+    private char[] keys;
+
+    private int[] values;
+
+    private boolean[] used;
+
+    private int mask;
+
+    private int size;
+
+    public CharIntMap(int defaultValue) {
+        this.defaultValue = defaultValue;
+        this.low = new int[LOW_SIZE];
+        Arrays.fill(low, defaultValue);
+        this.keys = new char[8];
+        this.values = new int[8];
+        this.used = new boolean[8];
+        this.mask = 7;
+    }
+
+    /**
+     * @param c 字符
+     * @return 字符对应的值，不存在时返回 defaultValue
+     */
+    public int get(char c) {
+        if (c < LOW_SIZE) {
+            return low[c];
+        }
+        int i = hash(c) & mask;
+        while (used[i]) {
+            if (keys[i] == c) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    /**
+     * @param c     字符
+     * @param value 值
+     */
+    public void put(char c, int value) {
+        if (c < LOW_SIZE) {
+            low[c] = value;
+            return;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int i = hash(c) & mask;
+        while (used[i]) {
+            if (keys[i] == c) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        used[i] = true;
+        keys[i] = c;
+        values[i] = value;
+        size++;
+    }
+
+    private void resize(int capacity) {
+        char[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new char[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldUsed[j]) {
+                int i = hash(oldKeys[j]) & mask;
+                while (used[i]) {
+                    i = (i + 1) & mask;
+                }
+                used[i] = true;
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static int hash(char c) {
+        int h = c * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
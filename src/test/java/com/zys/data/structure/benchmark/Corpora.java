@@ -0,0 +1,107 @@
+package com.zys.data.structure.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 基准测试用的语料，全部由固定种子生成，每次运行的数据都一样
+ *
+ * @author: zys
+ * @date: 2026/10/20 19:30
+ */
+public enum Corpora {
+    /**
+     * 英文文本：按常见词的词频随机拼成的句子
+     */
+    ENGLISH {
+        @Override
+        char[] text(int size, Random random) {
+            String[] words = {"the", "of", "and", "to", "in", "a", "is", "that", "for", "it", "as", "was", "with",
+                    "be", "by", "on", "not", "he", "this", "are", "or", "his", "from", "at", "which", "but", "have",
+                    "an", "had", "they", "you", "were", "their", "one", "all", "we", "can", "her", "has", "there",
+                    "been", "if", "more", "when", "will", "would", "who", "so", "no", "structure", "algorithm",
+                    "search", "pattern", "matching", "automaton", "performance", "throughput", "latency"};
+            char[] text = new char[size];
+            int i = 0;
+            while (i < size) {
+                // 越靠前的词出现得越频繁
+                String word = words[(int) (words.length * Math.pow(random.nextDouble(), 2))];
+                for (int j = 0; j < word.length() && i < size; j++) {
+                    text[i++] = word.charAt(j);
+                }
+                if (i < size) {
+                    text[i++] = random.nextInt(12) == 0 ? '.' : ' ';
+                }
+            }
+            return text;
+        }
+    },
+
+    /**
+     * DNA 序列：只有 ACGT 四种字符
+     */
+    DNA {
+        @Override
+        char[] text(int size, Random random) {
+            char[] text = new char[size];
+            for (int i = 0; i < size; i++) {
+                text[i] = "ACGT".charAt(random.nextInt(4));
+            }
+            return text;
+        }
+    },
+
+    /**
+     * 随机二进制数据：每个字符取值 0~255
+     */
+    BINARY {
+        @Override
+        char[] text(int size, Random random) {
+            char[] text = new char[size];
+            for (int i = 0; i < size; i++) {
+                text[i] = (char) random.nextInt(256);
+            }
+            return text;
+        }
+    },
+
+    /**
+     * 对抗输入：全是 a，模式串是 aa...ab，朴素算法和只用坏字符规则的算法在这里退化最严重
+     */
+    ADVERSARIAL {
+        @Override
+        char[] text(int size, Random random) {
+            char[] text = new char[size];
+            Arrays.fill(text, 'a');
+            return text;
+        }
+
+        @Override
+        char[] pattern(char[] text, int length, Random random) {
+            char[] pattern = new char[length];
+            Arrays.fill(pattern, 'a');
+            pattern[length - 1] = 'b';
+            return pattern;
+        }
+    };
+
+    /**
+     * @param size   字符个数
+     * @param random 随机数
+     * @return 主串
+     */
+    abstract char[] text(int size, Random random);
+
+    /**
+     * 默认从主串中随机截取一段作为模式串，保证有命中
+     *
+     * @param text   主串
+     * @param length 模式串长度
+     * @param random 随机数
+     * @return 模式串
+     */
+    char[] pattern(char[] text, int length, Random random) {
+        int start = random.nextInt(text.length - length);
+        return Arrays.copyOfRange(text, start, start + length);
+    }
+}
@@ -0,0 +1,187 @@
+package com.zys.data.structure.benchmark;
+
+import com.zys.data.structure.Heap;
+import com.zys.data.structure.heap.DaryLongHeap;
+import com.zys.data.structure.heap.LongHeap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 大堆上的堆操作延迟：原来的二叉 {@link Heap}、{@link LongHeap}、4 叉 / 8 叉 {@link DaryLongHeap} 和 {@link PriorityQueue} 对比
+ * <p>
+ * 先往堆里放 size 个随机数，之后交替插入和删除堆顶（删一个插一个，或者连续插入一批再连续删除一批），堆的大小保持不变，
+ * 测的是堆很大、放不进缓存时每次操作的平均耗时。所有实现都是大顶堆，元素取 int 范围，和 {@link Heap} 一致。
+ * <p>
+ * 1 亿个元素时 PriorityQueue 需要几 GB 内存，机器内存不够时用 -p size=1000000,10000000 只跑较小的规模。
+ *
+ * @author: zys
+ * @date: 2026/10/21 14:30
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms12g", "-Xmx12g"})
+public class HeapBenchmark {
+    private static final int BURST = 16;
+
+    /**
+     * 统一的操作接口，每次 trial 只用一种实现，调用点是单态的
+     */
+    interface IntQueue {
+        void add(int value);
+
+        int poll();
+    }
+
+    public enum Impl {
+        BINARY_HEAP {
+            @Override
+            IntQueue create(int size) {
+                Heap heap = new Heap(size);
+                return new IntQueue() {
+                    @Override
+                    public void add(int value) {
+                        heap.add(value);
+                    }
+
+                    @Override
+                    public int poll() {
+                        return heap.removeMax();
+                    }
+                };
+            }
+        },
+        LONG_HEAP {
+            @Override
+            IntQueue create(int size) {
+                LongHeap heap = LongHeap.maxHeap(size);
+                return new IntQueue() {
+                    @Override
+                    public void add(int value) {
+                        heap.add(value);
+                    }
+
+                    @Override
+                    public int poll() {
+                        return (int) heap.poll();
+                    }
+                };
+            }
+        },
+        QUATERNARY {
+            @Override
+            IntQueue create(int size) {
+                return dary(4, size);
+            }
+        },
+        OCTONARY {
+            @Override
+            IntQueue create(int size) {
+                return dary(8, size);
+            }
+        },
+        PRIORITY_QUEUE {
+            @Override
+            IntQueue create(int size) {
+                PriorityQueue<Integer> queue = new PriorityQueue<>(size, Collections.reverseOrder());
+                return new IntQueue() {
+                    @Override
+                    public void add(int value) {
+                        queue.add(value);
+                    }
+
+                    @Override
+                    public int poll() {
+                        return queue.poll();
+                    }
+                };
+            }
+        };
+
+        abstract IntQueue create(int size);
+
+        private static IntQueue dary(int arity, int size) {
+            DaryLongHeap heap = DaryLongHeap.maxHeap(arity, size);
+            return new IntQueue() {
+                @Override
+                public void add(int value) {
+                    heap.add(value);
+                }
+
+                @Override
+                public int poll() {
+                    return (int) heap.poll();
+                }
+            };
+        }
+    }
+
+    @Param
+    public Impl impl;
+
+    @Param({"1000000", "10000000", "100000000"})
+    public int size;
+
+    private IntQueue queue;
+
+    /**
+     * xorshift 随机数的状态，比 Random 便宜得多，不会掩盖堆操作本身的耗时
+     */
+    private int seed = 0x9E3779B9;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        queue = impl.create(size);
+        for (int i = 0; i < size; i++) {
+            queue.add(nextRandom());
+        }
+    }
+
+    @Benchmark
+    public int pollThenAdd() {
+        int top = queue.poll();
+        queue.add(nextRandom());
+        return top;
+    }
+
+    /**
+     * 先连续插入 16 个再连续删除 16 个，模拟突发到达的定时器
+     */
+    @Benchmark
+    @OperationsPerInvocation(2 * BURST)
+    public int burst() {
+        for (int i = 0; i < BURST; i++) {
+            queue.add(nextRandom());
+        }
+        int sum = 0;
+        for (int i = 0; i < BURST; i++) {
+            sum += queue.poll();
+        }
+        return sum;
+    }
+
+    private int nextRandom() {
+        int x = seed;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        seed = x;
+        return x;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(HeapBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,115 @@
+package com.zys.data.structure.benchmark;
+
+import com.zys.data.structure.Heap;
+import com.zys.data.structure.heap.ConcurrentLongPriorityQueue;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多线程优先级队列吞吐量：全局锁保护的 {@link Heap}、{@link PriorityBlockingQueue}、
+ * 严格顺序和宽松顺序的 {@link ConcurrentLongPriorityQueue} 对比
+ * <p>
+ * 每次操作随机插入一个元素或者删除最大值（各占一半），队列预先放入 PREFILL 个元素，大小基本保持不变。
+ * 直接运行 main 方法，依次用 1、2、4、8、16 个线程跑一遍，输出每种实现随线程数变化的吞吐量。
+ *
+ * @author: zys
+ * @date: 2026/10/21 20:00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriorityQueueConcurrencyBenchmark {
+    private static final int PREFILL = 100_000;
+
+    private Heap lockedHeap;
+
+    private PriorityBlockingQueue<Long> blockingQueue;
+
+    private ConcurrentLongPriorityQueue strictQueue;
+
+    private ConcurrentLongPriorityQueue relaxedQueue;
+
+    @Setup
+    public void setup() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        lockedHeap = new Heap(PREFILL);
+        blockingQueue = new PriorityBlockingQueue<>(PREFILL, (a, b) -> Long.compare(b, a));
+        strictQueue = ConcurrentLongPriorityQueue.strict();
+        relaxedQueue = ConcurrentLongPriorityQueue.relaxed();
+        for (int i = 0; i < PREFILL; i++) {
+            int value = random.nextInt(Integer.MAX_VALUE);
+            lockedHeap.add(value);
+            blockingQueue.add((long) value);
+            strictQueue.add(value);
+            relaxedQueue.add(value);
+        }
+    }
+
+    @Benchmark
+    public long lockedHeap() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        synchronized (lockedHeap) {
+            if (random.nextBoolean()) {
+                lockedHeap.add(random.nextInt(Integer.MAX_VALUE));
+                return 0;
+            }
+            return lockedHeap.removeMax();
+        }
+    }
+
+    @Benchmark
+    public Long priorityBlockingQueue() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextBoolean()) {
+            blockingQueue.add((long) random.nextInt(Integer.MAX_VALUE));
+            return null;
+        }
+        return blockingQueue.poll();
+    }
+
+    @Benchmark
+    public long strict() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextBoolean()) {
+            strictQueue.add(random.nextInt(Integer.MAX_VALUE));
+            return 0;
+        }
+        return strictQueue.removeMax();
+    }
+
+    @Benchmark
+    public long relaxed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextBoolean()) {
+            relaxedQueue.add(random.nextInt(Integer.MAX_VALUE));
+            return 0;
+        }
+        return relaxedQueue.removeMax();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 2, 4, 8, 16}) {
+            Options options = new OptionsBuilder()
+                    .include(PriorityQueueConcurrencyBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            Collection<RunResult> results = new Runner(options).run();
+            for (RunResult result : results) {
+                System.out.printf("threads=%d %s %.2f ops/us%n", threads,
+                        result.getParams().getBenchmark(), result.getPrimaryResult().getScore());
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.zys.data.structure.benchmark;
+
+import com.zys.data.structure.*;
+import com.zys.data.structure.trie.ChildMapFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 字符串查找算法对比：同一个模式串、同一份语料，通过 {@link TextSearcher} 统一调用各种算法，查找全部命中
+ * <p>
+ * 直接运行 main 方法会带上 GC profiler，除了吞吐量（每秒扫描整份语料的次数）之外，
+ * 还会输出每种算法的内存分配速率（gc.alloc.rate.norm 是每次操作分配的字节数）。
+ *
+ * @author: zys
+ * @date: 2026/10/20 19:40
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+    private static final int TEXT_SIZE = 1 << 20;
+
+    public enum Engine {
+        LEGACY_BM {
+            @Override
+            TextSearcher create(char[] pattern, char[] text) {
+                return BM.asMatcher(pattern);
+            }
+        },
+        LEGACY_KMP {
+            @Override
+            TextSearcher create(char[] pattern, char[] text) {
+                return KPM.asMatcher(pattern);
+            }
+        },
+        KMP {
+            @Override
+            TextSearcher create(char[] pattern, char[] text) {
+                return new KmpMatcher(pattern);
+            }
+        },
+        BOYER_MOORE {
+            @Override
+            TextSearcher create(char[] pattern, char[] text) {
+                return new BmMatcher(pattern);
+            }
+        },
+        HORSPOOL {
+            @Override
+            TextSearcher create(char[] pattern, char[] text) {
+                return new HorspoolMatcher(pattern);
+            }
+        },
+        SUNDAY {
+            @Override
+            TextSearcher create(char[] pattern, char[] text) {
+                return new SundayMatcher(pattern);
+            }
+        },
+        FIRST_LAST {
+            @Override
+            TextSearcher create(char[] pattern, char[] text) {
+                return new FirstLastMatcher(pattern);
+            }
+        },
+        AUTO {
+            @Override
+            TextSearcher create(char[] pattern, char[] text) {
+                return StringMatcher.compile(pattern);
+            }
+        },
+        ADAPTIVE {
+            @Override
+            TextSearcher create(char[] pattern, char[] text) {
+                return AdaptiveSearcher.compile(TextProfile.sample(text), pattern);
+            }
+        },
+        AC_TRIE {
+            @Override
+            TextSearcher create(char[] pattern, char[] text) {
+                AC ac = new AC(ChildMapFactory.hash());
+                ac.insert(pattern);
+                ac.buildFailurePointer();
+                return ac;
+            }
+        },
+        AC_DFA {
+            @Override
+            TextSearcher create(char[] pattern, char[] text) {
+                AC ac = new AC(ChildMapFactory.hash());
+                ac.insert(pattern);
+                ac.buildFailurePointer();
+                return ac.compile();
+            }
+        },
+        TRIE {
+            @Override
+            TextSearcher create(char[] pattern, char[] text) {
+                Trie trie = new Trie(ChildMapFactory.hash());
+                trie.insert(pattern);
+                return trie;
+            }
+        };
+
+        /**
+         * @param pattern 模式串
+         * @param text    语料，只有需要抽样主串的算法才用到
+         */
+        abstract TextSearcher create(char[] pattern, char[] text);
+    }
+
+    @Param
+    public Engine engine;
+
+    @Param
+    public Corpora corpus;
+
+    @Param({"4", "16", "64"})
+    public int patternLength;
+
+    private char[] text;
+
+    private TextSearcher searcher;
+
+    /**
+     * 只计数的回调，不分配对象
+     */
+    private final MatchListener listener = (patternId, start, length) -> {
+    };
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        text = corpus.text(TEXT_SIZE, random);
+        searcher = engine.create(corpus.pattern(text, patternLength, random), text);
+    }
+
+    @Benchmark
+    public int search() {
+        return searcher.search(text, 0, text.length, listener);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SearchBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,186 @@
+package com.zys.data.structure.benchmark;
+
+import com.zys.data.structure.ConcurrentTrie;
+import com.zys.data.structure.Trie;
+import com.zys.data.structure.trie.ChildMapFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 多线程查询吞吐量：全局锁保护的 {@link Trie} 和 {@link ConcurrentTrie} 对比
+ * <p>
+ * 混合读写时插入的都是预先生成的、和已有 key 不重复的新 key，每次插入都要在某个节点上复制子节点数组并 CAS，
+ * 测的是真正的插入路径，而不是“key 已经存在，CAS 结尾标识失败就返回”的捷径。
+ * 每轮迭代开始前重新构建两棵树、从头分配新 key；一轮中插入超过 NEW_KEY_COUNT 次之后新 key 循环使用，又会变成重复插入，
+ * 线程很多时可以缩短迭代时间。
+ * <p>
+ * 直接运行 main 方法，依次用 1、2、4、8、16 个线程跑一遍，输出每种实现随线程数变化的吞吐量。
+ *
+ * @author: zys
+ * @date: 2026/10/19 23:30
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrieConcurrencyBenchmark {
+    private static final int KEY_COUNT = 100_000;
+
+    /**
+     * 混合读写时插入的新 key 个数，2 的幂，循环使用时用位运算取下标
+     */
+    private static final int NEW_KEY_COUNT = 1 << 20;
+
+    /**
+     * 自动补全的前缀长度，26^3 个前缀，平均每个前缀下有 5 到 6 个 key
+     */
+    private static final int PREFIX_LENGTH = 3;
+
+    private char[][] keys;
+
+    /**
+     * 和 keys 不重复的新 key
+     */
+    private char[][] newKeys;
+
+    private char[][] prefixes;
+
+    /**
+     * 下一个要插入的新 key 的下标，所有线程共享
+     */
+    private final AtomicInteger nextNewKey = new AtomicInteger();
+
+    private Trie lockedTrie;
+
+    private ConcurrentTrie concurrentTrie;
+
+    @Setup(Level.Trial)
+    public void generateKeys() {
+        Random random = new Random(42);
+        Set<String> existing = new HashSet<>(KEY_COUNT * 2);
+        keys = new char[KEY_COUNT][];
+        prefixes = new char[KEY_COUNT][];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = randomKey(random);
+            prefixes[i] = Arrays.copyOf(keys[i], PREFIX_LENGTH);
+            existing.add(new String(keys[i]));
+        }
+        newKeys = new char[NEW_KEY_COUNT][];
+        for (int i = 0; i < NEW_KEY_COUNT; ) {
+            char[] key = randomKey(random);
+            if (existing.add(new String(key))) {
+                newKeys[i++] = key;
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void buildTries() {
+        lockedTrie = new Trie(ChildMapFactory.sorted());
+        concurrentTrie = new ConcurrentTrie();
+        for (char[] key : keys) {
+            lockedTrie.insert(key);
+            concurrentTrie.insert(key);
+        }
+        nextNewKey.set(0);
+    }
+
+    private static char[] randomKey(Random random) {
+        char[] key = new char[6 + random.nextInt(10)];
+        for (int j = 0; j < key.length; j++) {
+            key[j] = (char) ('a' + random.nextInt(26));
+        }
+        return key;
+    }
+
+    private char[] nextNewKey() {
+        return newKeys[nextNewKey.getAndIncrement() & (NEW_KEY_COUNT - 1)];
+    }
+
+    @Benchmark
+    public boolean lockedFind() {
+        char[] key = keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)];
+        synchronized (lockedTrie) {
+            return lockedTrie.find(key);
+        }
+    }
+
+    @Benchmark
+    public boolean concurrentFind() {
+        return concurrentTrie.find(keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)]);
+    }
+
+    @Benchmark
+    public List<String> lockedAutoCompletion() {
+        char[] prefix = prefixes[ThreadLocalRandom.current().nextInt(KEY_COUNT)];
+        synchronized (lockedTrie) {
+            return lockedTrie.autoCompletion(prefix);
+        }
+    }
+
+    @Benchmark
+    public List<String> concurrentAutoCompletion() {
+        return concurrentTrie.autoCompletion(prefixes[ThreadLocalRandom.current().nextInt(KEY_COUNT)]);
+    }
+
+    /**
+     * 90% 查询已有的 key、10% 插入新 key
+     */
+    @Benchmark
+    public boolean lockedMixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(10) == 0) {
+            char[] key = nextNewKey();
+            synchronized (lockedTrie) {
+                lockedTrie.insert(key);
+            }
+            return true;
+        }
+        char[] key = keys[random.nextInt(KEY_COUNT)];
+        synchronized (lockedTrie) {
+            return lockedTrie.find(key);
+        }
+    }
+
+    /**
+     * 90% 查询已有的 key、10% 插入新 key
+     */
+    @Benchmark
+    public boolean concurrentMixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(10) == 0) {
+            return concurrentTrie.insert(nextNewKey());
+        }
+        return concurrentTrie.find(keys[random.nextInt(KEY_COUNT)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 2, 4, 8, 16}) {
+            Options options = new OptionsBuilder()
+                    .include(TrieConcurrencyBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            Collection<RunResult> results = new Runner(options).run();
+            for (RunResult result : results) {
+                System.out.printf("threads=%d %s %.2f ops/us%n", threads,
+                        result.getParams().getBenchmark(), result.getPrimaryResult().getScore());
+            }
+        }
+    }
+}